@@ -0,0 +1,12 @@
+package com.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process Caffeine caches configured under {@code spring.cache.*}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
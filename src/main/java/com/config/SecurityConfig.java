@@ -2,8 +2,10 @@ package com.config;
 
 import com.security.JwtAuthorizationFilter;
 import com.service.TokenBlacklistService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -36,8 +38,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable()) // stateless JWT-authenticatie
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (e.g. the end of a streamed CSV export) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/v1/auth/login", "/auth/login", "/auth/register", "/error").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
 
                         // CUSTOMER-
                         .requestMatchers("GET", "/api/v1/restaurants/**").permitAll()
@@ -54,6 +60,7 @@ public class SecurityConfig {
 
                         // DELIVERY_PERSON
                         .requestMatchers("GET", "/api/v1/delivery/orders").hasRole("DELIVERY_PERSON")
+                        .requestMatchers("GET", "/api/v1/delivery/orders/stream").hasRole("DELIVERY_PERSON")
                         .requestMatchers("GET", "/api/v1/delivery/history").hasRole("DELIVERY_PERSON")
                         .requestMatchers("POST", "/api/v1/delivery/orders/{orderNumber}/assign").hasRole("DELIVERY_PERSON")
                         .requestMatchers("PATCH", "/api/v1/delivery/orders/{orderNumber}/status").hasRole("DELIVERY_PERSON")
@@ -61,6 +68,10 @@ public class SecurityConfig {
                         // ADMIN
                         .requestMatchers("/api/users/**").hasRole("ADMIN") // Beheer van gebruikersaccounts
 
+                        // Actuator: cache hit/miss/eviction metrics for restaurant employees, nothing else
+                        .requestMatchers(HttpMethod.GET, "/actuator/metrics", "/actuator/metrics/**").hasRole("RESTAURANT_EMPLOYEE")
+                        .requestMatchers("/actuator/**").denyAll()
+
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthorizationFilter, UsernamePasswordAuthenticationFilter.class)
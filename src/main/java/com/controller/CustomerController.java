@@ -4,11 +4,16 @@ import com.dto.CustomerOrderDTO;
 import com.dto.OrderDTO;
 import com.response.ApiResponse;
 import com.service.CustomerService;
+import com.service.MenuCacheService;
 import com.service.OrderService;
+import com.service.PrerenderedMenuService;
 import com.utils.AuthUtils;
+import com.utils.CursorUtils;
+import com.utils.ResponseUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -19,16 +24,26 @@ import java.util.Map;
 public class CustomerController {
     private final OrderService orderService;
     private final CustomerService customerService;
+    private final MenuCacheService menuCacheService;
+    private final PrerenderedMenuService prerenderedMenuService;
 
-    public CustomerController(CustomerService customerService, OrderService orderService) {
+    public CustomerController(CustomerService customerService, OrderService orderService,
+                              MenuCacheService menuCacheService, PrerenderedMenuService prerenderedMenuService) {
         this.customerService = customerService;
         this.orderService = orderService;
+        this.menuCacheService = menuCacheService;
+        this.prerenderedMenuService = prerenderedMenuService;
     }
 
     @GetMapping("/restaurants/{slug}/menu")
-    public ResponseEntity<ApiResponse<List<?>>> getMenuByRestaurant(@PathVariable String slug) {
-        List<?> menu = customerService.getMenuByRestaurantSlug(slug);
-        return ResponseEntity.ok(ApiResponse.success(menu));
+    public ResponseEntity<?> getMenuByRestaurant(@PathVariable String slug, WebRequest webRequest) {
+        boolean includeInventory = AuthUtils.isRestaurantEmployee();
+        if (!includeInventory && prerenderedMenuService.isEnabled()) {
+            return prerenderedMenuService.getPublicMenuResponse(slug, webRequest);
+        }
+        String eTag = menuCacheService.getMenuETag(slug, includeInventory);
+        return ResponseUtils.conditionalGet(webRequest, eTag,
+                () -> ApiResponse.success(customerService.getMenuByRestaurantSlug(slug)));
     }
 
     @PreAuthorize("hasRole('ROLE_CUSTOMER')")
@@ -42,9 +57,10 @@ public class CustomerController {
 
     @PreAuthorize("hasRole('ROLE_CUSTOMER')")
     @GetMapping("/orders")
-    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getAllOrdersForUser() {
-        List<CustomerOrderDTO> orders = customerService.getAllOrdersForAuthenticatedUser();
-        return ResponseEntity.ok(ApiResponse.success(orders));
+    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getAllOrdersForUser(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseUtils.pagedResponse(customerService.getAllOrdersForAuthenticatedUser(cursor, size));
     }
 
     @PreAuthorize("hasRole('ROLE_CUSTOMER')")
@@ -2,12 +2,17 @@ package com.controller;
 
 import com.dto.CustomerOrderDTO;
 import com.response.ApiResponse;
+import com.service.DeliveryBoardService;
 import com.service.DeliveryService;
+import com.utils.AuthUtils;
+import com.utils.CursorUtils;
 import com.utils.ResponseUtils;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -20,22 +25,37 @@ import java.util.Map;
 public class DeliveryController {
 
     private final DeliveryService deliveryService;
+    private final DeliveryBoardService deliveryBoardService;
 
     /**
-     * Constructor-based Dependency Injection for DeliveryService.
+     * Constructor-based Dependency Injection for DeliveryService and DeliveryBoardService.
      */
-    public DeliveryController(DeliveryService deliveryService) {
+    public DeliveryController(DeliveryService deliveryService, DeliveryBoardService deliveryBoardService) {
         this.deliveryService = deliveryService;
+        this.deliveryBoardService = deliveryBoardService;
     }
 
     /**
-     * Retrieves all orders relevant to delivery personnel.
+     * Retrieves a page of orders relevant to delivery personnel, newest first.
+     * The cursor of the next page is returned in the X-Next-Cursor header.
      */
     @PreAuthorize("hasRole('ROLE_DELIVERY_PERSON')")
     @GetMapping("/orders")
-    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getAllOrders() {
-        List<CustomerOrderDTO> orders = deliveryService.getAllDeliveryOrders();
-        return ResponseEntity.ok(ApiResponse.success(orders));
+    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseUtils.pagedResponse(deliveryService.getAllDeliveryOrders(cursor, size));
+    }
+
+    /**
+     * Streams the delivery order board as Server-Sent Events: the current board first,
+     * then an event whenever an order is added, updated, removed or claimed. While the stream is open
+     * the courier is available to the dispatcher.
+     */
+    @PreAuthorize("hasRole('ROLE_DELIVERY_PERSON')")
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders() {
+        return deliveryBoardService.subscribe(AuthUtils.getAuthenticatedUsername());
     }
 
     /**
@@ -58,13 +78,15 @@ public class DeliveryController {
     }
 
     /**
-     * Retrieves the delivery history for the logged-in delivery person.
+     * Retrieves a page of the delivery history for the logged-in delivery person, newest first.
+     * The cursor of the next page is returned in the X-Next-Cursor header.
      */
     @PreAuthorize("hasRole('ROLE_DELIVERY_PERSON')")
     @GetMapping("/history")
-    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getDeliveryHistory() {
-        List<CustomerOrderDTO> deliveredOrders = deliveryService.getDeliveryHistory();
-        return ResponseEntity.ok(ApiResponse.success(deliveredOrders));
+    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getDeliveryHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseUtils.pagedResponse(deliveryService.getDeliveryHistory(cursor, size));
     }
 
     /**
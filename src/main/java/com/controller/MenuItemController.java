@@ -10,7 +10,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -103,4 +105,29 @@ public class MenuItemController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> uploadMenu(@RequestParam("file") MultipartFile file) {
         return ResponseUtils.handleRequest(() -> ApiResponse.success(menuItemService.handleCsvUpload(file)));
     }
+
+    /**
+     * Queues a CSV menu upload for background processing and answers 202 with the job to poll.
+     * Answers 503 when too many imports are already running.
+     */
+    @PostMapping(value = "/upload", params = "async=true")
+    @PreAuthorize("hasRole('RESTAURANT_EMPLOYEE')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> uploadMenuAsync(@RequestParam("file") MultipartFile file) {
+        Map<String, Object> job = menuItemService.startCsvImportJob(file);
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .replaceQuery(null)
+                .path("/{jobId}")
+                .buildAndExpand(job.get("jobId"))
+                .toUri();
+        return ResponseEntity.accepted().location(statusUri).body(ApiResponse.success(job));
+    }
+
+    /**
+     * Returns the progress of a background CSV menu upload.
+     */
+    @GetMapping("/upload/{jobId}")
+    @PreAuthorize("hasRole('RESTAURANT_EMPLOYEE')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getUploadStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(menuItemService.getCsvImportJobStatus(jobId)));
+    }
 }
@@ -7,18 +7,27 @@ import com.response.ApiResponse;
 import com.repository.AppUserRepository;
 import com.repository.CustomerOrderRepository;
 import com.repository.MenuItemRepository;
+import com.service.MenuCacheService;
 import com.service.OrderService;
 import com.service.RestaurantService;
+import com.utils.CursorUtils;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import static com.utils.AuthUtils.getLoggedInUsername;
+import static com.utils.ResponseUtils.conditionalGet;
+import static com.utils.ResponseUtils.handlePagedRequest;
 import static com.utils.ResponseUtils.handleRequest;
 
 /**
@@ -43,19 +52,28 @@ public class RestaurantController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private MenuCacheService menuCacheService;
+
     /**
-     * Retrieves a list of all available restaurants with menu items.
+     * Retrieves a page of available restaurants with menu items, optionally filtered by name.
+     * A page shorter than the requested size is the last one.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<RestaurantDTO>>> getAllRestaurants() {
+    public ResponseEntity<ApiResponse<List<RestaurantDTO>>> getAllRestaurants(
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest webRequest) {
         boolean isEmployee = com.utils.AuthUtils.isRestaurantEmployee();
         String username = getLoggedInUsername();
 
-        List<RestaurantDTO> restaurantDTOs = isEmployee
-                ? restaurantService.getRestaurantsForEmployee(username)
-                : restaurantService.getAllRestaurantsWithMenu();
-
-        return ResponseEntity.ok(ApiResponse.success(restaurantDTOs));
+        return conditionalGet(webRequest, menuCacheService.getCatalogETag(isEmployee), () -> {
+            List<RestaurantDTO> restaurantDTOs = isEmployee
+                    ? restaurantService.getRestaurantsForEmployee(username)
+                    : restaurantService.getAllRestaurantsWithMenu(name, page, size);
+            return ApiResponse.success(restaurantDTOs);
+        });
     }
 
     /**
@@ -89,13 +107,18 @@ public class RestaurantController {
     }
 
     /**
-     * Downloads a CSV of orders for the authenticated restaurant.
+     * Streams a CSV of orders for the authenticated restaurant, optionally limited to a date range
+     * (ISO dates, both inclusive) and to one or more statuses. Gzipped when the client accepts it.
      */
     @PreAuthorize("hasRole('RESTAURANT_EMPLOYEE')")
     @GetMapping("/orders/download")
-    public ResponseEntity<byte[]> downloadOrdersAsCsv() {
+    public ResponseEntity<StreamingResponseBody> downloadOrdersAsCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<String> status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         String username = getLoggedInUsername();
-        return restaurantService.downloadOrdersAsCsv(username);
+        return restaurantService.downloadOrdersAsCsv(username, from, to, status, acceptEncoding);
     }
 
     /**
@@ -117,31 +140,34 @@ public class RestaurantController {
     }
 
     /**
-     * Fetches orders for the logged-in restaurant employee.
+     * Fetches a page of orders for the logged-in restaurant employee, newest first.
+     * The cursor of the next page is returned in the X-Next-Cursor header.
      */
     @PreAuthorize("hasRole('RESTAURANT_EMPLOYEE')")
     @GetMapping("/{slug}/orders")
-    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getOrdersForLoggedInEmployee(@PathVariable String slug) {
-        return handleRequest(() -> {
+    public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getOrdersForLoggedInEmployee(
+            @PathVariable String slug,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_PAGE_SIZE) int size) {
+        return handlePagedRequest(() -> {
             String username = getLoggedInUsername();
-            return ApiResponse.success(restaurantService.getOrdersForEmployee(slug, username));
+            return restaurantService.getOrdersForEmployee(slug, username, cursor, size);
         });
     }
 
     /**
-     * Fetches orders based on their status.
+     * Fetches a page of orders based on their status, newest first.
+     * The cursor of the next page is returned in the X-Next-Cursor header.
      */
     @PreAuthorize("hasRole('RESTAURANT_EMPLOYEE')")
     @GetMapping("/orders")
     public ResponseEntity<ApiResponse<List<CustomerOrderDTO>>> getOrdersByStatus(
-            @RequestParam(required = false) String status) {
-
-        return handleRequest(() -> {
-            List<CustomerOrderDTO> orders = (status != null)
-                    ? restaurantService.getOrdersByStatus(OrderStatus.valueOf(status.toUpperCase()))
-                    : restaurantService.getAllOrders();
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_PAGE_SIZE) int size) {
 
-            return ApiResponse.success(orders);
-        });
+        return handlePagedRequest(() -> (status != null)
+                ? restaurantService.getOrdersByStatus(OrderStatus.valueOf(status.toUpperCase()), cursor, size)
+                : restaurantService.getAllOrders(cursor, size));
     }
 }
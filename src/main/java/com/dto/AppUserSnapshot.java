@@ -0,0 +1,15 @@
+package com.dto;
+
+import com.model.UserRole;
+
+/**
+ * An immutable copy of the fields of a user that authentication and authorization need, without its
+ * restaurant or address entities.
+ *
+ * @param password     The encoded password.
+ * @param restaurantId The restaurant the user works for, or null if none.
+ * @param addressId    The address of the user, or null if none.
+ */
+public record AppUserSnapshot(Long id, String username, String password, UserRole role, String fullName,
+                              Long restaurantId, Long addressId) {
+}
@@ -1,6 +1,8 @@
 package com.dto;
 
+import com.model.Address;
 import com.model.CustomerOrder;
+import com.model.OrderStatus;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.*;
 
@@ -39,6 +41,22 @@ public class CustomerOrderDTO {
                 ? order.getUser().getAddress().getFullAddress() : "No address available";
     }
 
+    /**
+     * Constructor for JPQL projections ({@code SELECT new com.dto.CustomerOrderDTO(...)}), which select only
+     * the columns shown here instead of loading the order entity graph.
+     */
+    public CustomerOrderDTO(Long id, String orderNumber, double totalPrice, OrderStatus status, String restaurantName,
+                            String customerName, String streetName, String houseNumber, String postalCode, String city) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.totalPrice = totalPrice;
+        this.status = status.name();
+        this.restaurantName = restaurantName;
+        this.customerName = customerName;
+        this.customerAddress = (streetName != null)
+                ? Address.formatFullAddress(streetName, houseNumber, postalCode, city) : "No address available";
+    }
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,10 @@
+package com.event;
+
+/**
+ * Published when a delivery person claims an order themselves. Orders assigned by the dispatcher publish none.
+ *
+ * @param orderId        The ID of the order.
+ * @param deliveryPerson The username of the delivery person.
+ */
+public record OrderClaimedEvent(Long orderId, String deliveryPerson) {
+}
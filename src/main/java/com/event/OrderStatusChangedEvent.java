@@ -0,0 +1,14 @@
+package com.event;
+
+import com.model.OrderStatus;
+
+/**
+ * Published when the status of an order changes. Listeners that need the committed state should use
+ * {@code @TransactionalEventListener}.
+ *
+ * @param orderId        The ID of the order.
+ * @param previousStatus The status before the change.
+ * @param status         The new status.
+ */
+public record OrderStatusChangedEvent(Long orderId, OrderStatus previousStatus, OrderStatus status) {
+}
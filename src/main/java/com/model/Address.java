@@ -9,7 +9,8 @@ import jakarta.persistence.*;
 public class Address {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_id_generator")
+    @SequenceGenerator(name = "address_id_generator", sequenceName = "address_seq", allocationSize = 50)
     private Long id;
 
     private String streetName;
@@ -76,6 +77,13 @@ public class Address {
      * @return Full address in the format: "streetName houseNumber, postalCode city"
      */
     public String getFullAddress() {
+        return formatFullAddress(streetName, houseNumber, postalCode, city);
+    }
+
+    /**
+     * Formats address parts the same way as {@link #getFullAddress()}, for projections that select the columns.
+     */
+    public static String formatFullAddress(String streetName, String houseNumber, String postalCode, String city) {
         return streetName + " " + houseNumber + ", " + postalCode + " " + city;
     }
 }
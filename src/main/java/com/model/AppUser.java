@@ -14,7 +14,8 @@ import jakarta.persistence.*;
 public class AppUser {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generate primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_users_id_generator") // Auto-generate primary key
+    @SequenceGenerator(name = "app_users_id_generator", sequenceName = "app_users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true) // Username must be unique and not null
@@ -2,9 +2,10 @@ package com.model;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Represents a customer's order, including items, delivery address, and status.
@@ -14,7 +15,8 @@ import java.util.UUID;
 public class CustomerOrder {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generate primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_order_id_generator") // Auto-generate primary key
+    @SequenceGenerator(name = "customer_order_id_generator", sequenceName = "customer_order_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_number", unique = true, nullable = false) // Unique order identifier
@@ -24,12 +26,12 @@ public class CustomerOrder {
     @JoinColumn(name = "user_id", nullable = false) // Link to the customer
     private AppUser user;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-    @JoinColumn(name = "customer_order_id") // Link items to the order
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_order_id", nullable = false, updatable = false) // Link items to the order (written in the item insert)
     @JsonIgnore
     private List<OrderItem> orderItems;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "address_id", nullable = false) // Delivery address
     private Address address;
 
@@ -47,16 +49,19 @@ public class CustomerOrder {
     @Column(name = "delivery_person") // Assigned delivery person
     private String deliveryPerson;
 
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false) // When the order was placed
+    private LocalDateTime createdAt;
+
     // Default constructor
     public CustomerOrder() {
-        this.orderNumber = generateOrderNumber();
     }
 
 
 
     // Constructor with fields
-    public CustomerOrder(AppUser user, List<OrderItem> orderItems, Address address, OrderStatus status, double totalPrice, Restaurant restaurant) {
-        this.orderNumber = generateOrderNumber();
+    public CustomerOrder(String orderNumber, AppUser user, List<OrderItem> orderItems, Address address, OrderStatus status, double totalPrice, Restaurant restaurant) {
+        this.orderNumber = orderNumber;
         this.user = user;
         this.orderItems = orderItems;
         this.address = address;
@@ -65,11 +70,6 @@ public class CustomerOrder {
         this.restaurant = restaurant;
     }
 
-    // Generate a unique order number
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
-
     // Calculate total price based on items
     public double calculateTotalPrice() {
         return orderItems.stream().mapToDouble(OrderItem::getTotalPrice).sum();
@@ -137,6 +137,10 @@ public class CustomerOrder {
         this.deliveryPerson = deliveryPerson;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
     public AppUser getCustomer() {
         return user;
     }
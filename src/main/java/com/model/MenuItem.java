@@ -9,7 +9,8 @@ import jakarta.persistence.*;
 public class MenuItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generate primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_item_id_generator") // Auto-generate primary key
+    @SequenceGenerator(name = "menu_item_id_generator", sequenceName = "menu_item_seq", allocationSize = 50)
     private Long id;
 
     private String name;
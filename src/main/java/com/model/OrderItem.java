@@ -10,7 +10,8 @@ import jakarta.persistence.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-generate primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_generator") // Auto-generate primary key
+    @SequenceGenerator(name = "order_items_id_generator", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
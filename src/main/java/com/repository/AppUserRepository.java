@@ -1,10 +1,14 @@
 package com.repository;
 
+import com.dto.AppUserSnapshot;
 import com.model.AppUser;
 import com.repository.AppUserRepository;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -20,4 +24,23 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
      */
     Optional<AppUser> findByUsername(String username);
 
+    /**
+     * Find a snapshot of a user by username, without loading its address or restaurant.
+     *
+     * @param username the username to search for.
+     * @return an Optional containing the snapshot if found, or empty if not.
+     */
+    @Query("SELECT new com.dto.AppUserSnapshot(u.id, u.username, u.password, u.role, u.fullName, u.restaurant.id, u.address.id) "
+            + "FROM AppUser u WHERE u.username = :username")
+    Optional<AppUserSnapshot> findSnapshotByUsername(@Param("username") String username);
+
+    /**
+     * Find the usernames of the employees of a restaurant, without loading the users.
+     *
+     * @param restaurantId the ID of the restaurant.
+     * @return the usernames, in no particular order.
+     */
+    @Query("SELECT u.username FROM AppUser u WHERE u.restaurant.id = :restaurantId")
+    List<String> findUsernamesByRestaurantId(@Param("restaurantId") Long restaurantId);
+
 }
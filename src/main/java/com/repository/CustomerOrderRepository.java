@@ -1,14 +1,17 @@
 package com.repository;
 
-import com.dto.OrderDTO;
+import com.dto.CustomerOrderDTO;
 import com.model.CustomerOrder;
 import com.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,12 +21,6 @@ import java.util.Optional;
 @Repository
 public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Long> {
 
-    /**
-     * Fetch all orders with associated order items, restaurant, and address.
-     */
-    @EntityGraph(attributePaths = {"orderItems", "restaurant", "address"})
-    List<CustomerOrder> findAll();
-
     /**
      * Fetch a specific order by ID with associated order items.
      */
@@ -31,41 +28,12 @@ public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Lo
     Optional<CustomerOrder> findById(Long id);
 
 
-    /**
-     * Fetch all orders for a specific restaurant by its ID.
-     */
-    List<CustomerOrder> findByRestaurant_Id(Long restaurantId);
-
-    /**
-     * Fetch orders with specified statuses, including detailed associations.
-     */
-    @Query("""
-        SELECT o FROM CustomerOrder o
-        LEFT JOIN FETCH o.orderItems i
-        LEFT JOIN FETCH i.menuItem
-        LEFT JOIN FETCH o.restaurant r
-        LEFT JOIN FETCH o.address a
-        WHERE o.status IN :statuses
-    """)
-    List<CustomerOrder> findByStatusesWithDetails(@Param("statuses") List<OrderStatus> statuses);
-
     /**
      * Fetch a specific order by its order number, including order items and restaurant.
      */
     @EntityGraph(attributePaths = {"orderItems", "restaurant", "address", "user", "user.address"})
     Optional<CustomerOrder> findByOrderNumber(String orderNumber);
 
-    /**
-     * Fetch all orders with a specific status.
-     */
-    List<CustomerOrder> findByStatus(OrderStatus status);
-
-    /**
-     * Fetch orders for a specific user, including associated order items, restaurant, and address.
-     */
-    @EntityGraph(attributePaths = {"user", "user.address", "restaurant", "orderItems.menuItem"})
-    List<CustomerOrder> findByUser_Username(String username);
-
     /**
      * Fetch a specific order by its order number and username, with detailed associations.
      */
@@ -74,17 +42,37 @@ public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Lo
 
 
     /**
-     * Fetch orders assigned to a delivery person with specified statuses.
+     * Fetch all orders with one of the specified statuses, projected into CustomerOrderDTO, newest first.
      */
     @Query("""
-        SELECT o FROM CustomerOrder o
-        WHERE o.deliveryPerson = :username AND o.status IN :statuses
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
+        )
+        FROM CustomerOrder o
+        JOIN o.user u
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE o.status IN :statuses
+        ORDER BY o.id DESC
     """)
-    List<CustomerOrder> findByDeliveryPersonAndStatuses(
-            @Param("username") String username,
-            @Param("statuses") List<OrderStatus> statuses
-    );
+    List<CustomerOrderDTO> findByStatuses(@Param("statuses") List<OrderStatus> statuses);
 
+    /**
+     * Fetch several orders projected into CustomerOrderDTO, in no particular order.
+     */
+    @Query("""
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
+        )
+        FROM CustomerOrder o
+        JOIN o.user u
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE o.id IN :ids
+    """)
+    List<CustomerOrderDTO> findDtosByIds(@Param("ids") Collection<Long> ids);
 
     /**
      * Fetch a specific order by order number with detailed associations.
@@ -104,32 +92,168 @@ public interface CustomerOrderRepository extends JpaRepository<CustomerOrder, Lo
 
 
     /**
-     * Fetch orders for a specific restaurant, projecting results into OrderDTO objects.
+     * Fetch a specific order by order number, including associated order items and menu items.
+     */
+    @Query("""
+        SELECT o FROM CustomerOrder o
+        LEFT JOIN FETCH o.orderItems i
+        LEFT JOIN FETCH i.menuItem
+        WHERE o.orderNumber = :orderNumber
+    """)
+    Optional<CustomerOrder> findByOrderNumberWithItems(@Param("orderNumber") String orderNumber);
+
+    // Keyset pages: newest first, rows below the cursor ID. The pageable only limits the row count
+    // (see CursorUtils.pageRequest). Rows are projected straight into CustomerOrderDTO, so neither the
+    // order entities nor their items and addresses are loaded into the persistence context.
+
+    /**
+     * Fetch a page of all orders.
      */
     @Query("""
-        SELECT new com.dto.OrderDTO(
-            CAST(o.orderNumber AS string),
-            o.totalPrice,
-            o.status,
-            u.fullName,
-            ''
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
         )
         FROM CustomerOrder o
         JOIN o.user u
-        WHERE o.restaurant.id = :restaurantId
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE o.id < :beforeId
+        ORDER BY o.id DESC
     """)
-    List<OrderDTO> findByRestaurant_IdWithDetails(@Param("restaurantId") Long restaurantId);
+    List<CustomerOrderDTO> findPageBefore(@Param("beforeId") long beforeId, Pageable pageable);
 
     /**
-     * Fetch a specific order by order number, including associated order items and menu items.
+     * Fetch a page of orders with a specific status.
      */
     @Query("""
-        SELECT o FROM CustomerOrder o
-        LEFT JOIN FETCH o.orderItems i
-        LEFT JOIN FETCH i.menuItem
-        WHERE o.orderNumber = :orderNumber
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
+        )
+        FROM CustomerOrder o
+        JOIN o.user u
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE o.status = :status AND o.id < :beforeId
+        ORDER BY o.id DESC
     """)
-    Optional<CustomerOrder> findByOrderNumberWithItems(@Param("orderNumber") String orderNumber);
+    List<CustomerOrderDTO> findPageByStatusBefore(@Param("status") OrderStatus status,
+                                               @Param("beforeId") long beforeId,
+                                               Pageable pageable);
+
+    /**
+     * Fetch a page of orders for a specific restaurant.
+     */
+    @Query("""
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
+        )
+        FROM CustomerOrder o
+        JOIN o.user u
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE o.restaurant.id = :restaurantId AND o.id < :beforeId
+        ORDER BY o.id DESC
+    """)
+    List<CustomerOrderDTO> findPageByRestaurantBefore(@Param("restaurantId") Long restaurantId,
+                                                   @Param("beforeId") long beforeId,
+                                                   Pageable pageable);
+
+    /**
+     * Fetch a page of orders placed by a specific user.
+     */
+    @Query("""
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
+        )
+        FROM CustomerOrder o
+        JOIN o.user u
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE u.username = :username AND o.id < :beforeId
+        ORDER BY o.id DESC
+    """)
+    List<CustomerOrderDTO> findPageByUsernameBefore(@Param("username") String username,
+                                                 @Param("beforeId") long beforeId,
+                                                 Pageable pageable);
+
+    /**
+     * Fetch a page of orders assigned to a delivery person with specified statuses.
+     */
+    @Query("""
+        SELECT new com.dto.CustomerOrderDTO(
+            o.id, o.orderNumber, o.totalPrice, o.status, r.name,
+            u.fullName, ua.streetName, ua.houseNumber, ua.postalCode, ua.city
+        )
+        FROM CustomerOrder o
+        JOIN o.user u
+        LEFT JOIN u.address ua
+        LEFT JOIN o.restaurant r
+        WHERE o.deliveryPerson = :username AND o.status IN :statuses AND o.id < :beforeId
+        ORDER BY o.id DESC
+    """)
+    List<CustomerOrderDTO> findPageByDeliveryPersonAndStatusesBefore(@Param("username") String username,
+                                                                  @Param("statuses") List<OrderStatus> statuses,
+                                                                  @Param("beforeId") long beforeId,
+                                                                  Pageable pageable);
+
+    /**
+     * Assigns a delivery person to an order in one conditional update, if the order is unassigned and in one
+     * of the given statuses. Concurrent claims of the same order serialize on the row lock, so exactly one
+     * of them updates the row.
+     *
+     * @return 1 if the order was claimed, 0 otherwise.
+     */
+    @Modifying
+    @Query("""
+        UPDATE CustomerOrder o SET o.deliveryPerson = :username
+        WHERE o.id = :id AND o.deliveryPerson IS NULL AND o.status IN :statuses
+    """)
+    int claimForDelivery(@Param("id") Long id,
+                         @Param("username") String username,
+                         @Param("statuses") List<OrderStatus> statuses);
+
+    /**
+     * Fetch the ID of an order by its order number, without loading the order.
+     */
+    @Query("SELECT o.id FROM CustomerOrder o WHERE o.orderNumber = :orderNumber")
+    Optional<Long> findIdByOrderNumber(@Param("orderNumber") String orderNumber);
+
+    /**
+     * Fetch the delivery person and status of an order, without loading the order.
+     */
+    @Query("SELECT o.id AS id, o.deliveryPerson AS deliveryPerson, o.status AS status FROM CustomerOrder o WHERE o.id = :id")
+    Optional<DeliveryAssignment> findDeliveryAssignmentById(@Param("id") Long id);
+
+    /**
+     * Fetch the delivery person and status of several orders, without loading the orders.
+     */
+    @Query("SELECT o.id AS id, o.deliveryPerson AS deliveryPerson, o.status AS status FROM CustomerOrder o WHERE o.id IN :ids")
+    List<DeliveryAssignment> findDeliveryAssignmentsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fetch the delivery person and status of all assigned orders with one of the specified statuses.
+     */
+    @Query("""
+        SELECT o.id AS id, o.deliveryPerson AS deliveryPerson, o.status AS status FROM CustomerOrder o
+        WHERE o.status IN :statuses AND o.deliveryPerson IS NOT NULL
+    """)
+    List<DeliveryAssignment> findDeliveryAssignmentsByStatuses(@Param("statuses") List<OrderStatus> statuses);
+
+    /**
+     * The delivery person and status of an order.
+     */
+    interface DeliveryAssignment {
+
+        Long getId();
+
+        String getDeliveryPerson();
+
+        OrderStatus getStatus();
+    }
 
     /**
      * Explicit method to fetch an order by its ID.
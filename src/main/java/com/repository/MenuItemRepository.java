@@ -4,6 +4,7 @@ import com.model.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,24 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
      */
     List<MenuItem> findByRestaurant_IdAndIsAvailable(Long restaurantId, boolean isAvailable);
 
+    /**
+     * Fetch menu items by availability status for several restaurants in a single query.
+     *
+     * @param restaurantIds The IDs of the restaurants.
+     * @param isAvailable   The availability status.
+     * @return The matching menu items of all given restaurants, ordered by ID.
+     */
+    List<MenuItem> findByRestaurant_IdInAndIsAvailableOrderByIdAsc(Collection<Long> restaurantIds, boolean isAvailable);
+
+    /**
+     * Fetch the given menu items of a restaurant in a single query.
+     *
+     * @param restaurantId The ID of the restaurant.
+     * @param ids          The IDs of the menu items.
+     * @return The menu items that exist and belong to the restaurant.
+     */
+    List<MenuItem> findByRestaurant_IdAndIdIn(Long restaurantId, Collection<Long> ids);
+
     /**
      * Alias method for findById to make it explicitly visible in the repository.
      *
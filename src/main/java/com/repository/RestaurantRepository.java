@@ -1,6 +1,7 @@
 package com.repository;
 
 import com.model.Restaurant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -25,6 +26,24 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @EntityGraph(attributePaths = "menuItems")
     Optional<Restaurant> findBySlug(String slug);
 
+    /**
+     * Fetch a restaurant by slug without loading its menu items or employees.
+     *
+     * @param slug The slug of the restaurant.
+     * @return Optional containing the restaurant, if found.
+     */
+    @Query("SELECT r FROM Restaurant r WHERE r.slug = :slug")
+    Optional<Restaurant> findBySlugWithoutDetails(@Param("slug") String slug);
+
+    /**
+     * Find the ID of the restaurant with a slug, without loading the restaurant.
+     *
+     * @param slug The slug of the restaurant.
+     * @return Optional containing the restaurant ID, if found.
+     */
+    @Query("SELECT r.id FROM Restaurant r WHERE r.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
     /**
      * Fetch a restaurant by ID with both employees and menu items eagerly loaded.
      *
@@ -66,5 +85,22 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.menuItems")
     List<Restaurant> findAll();
 
+    /**
+     * Fetch one page of restaurants without their menu items or employees.
+     *
+     * @param pageable The page to fetch; no count query is issued.
+     * @return The restaurants on the requested page.
+     */
+    List<Restaurant> findAllBy(Pageable pageable);
+
+    /**
+     * Fetch one page of restaurants whose name contains the given text, ignoring case.
+     *
+     * @param name     The text to search for.
+     * @param pageable The page to fetch; no count query is issued.
+     * @return The matching restaurants on the requested page.
+     */
+    List<Restaurant> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
 
 }
@@ -0,0 +1,51 @@
+package com.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * The principal of a request authenticated by JWT, with the IDs carried in the token's claims.
+ * <p>
+ * Tokens issued before these claims existed have a null {@link #getUserId()}; callers then look the user up.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final Long restaurantId;
+    private final Long addressId;
+
+    public AuthenticatedUser(String username, Collection<? extends GrantedAuthority> authorities,
+                             Long userId, Long restaurantId, Long addressId) {
+        super(username, "", authorities);
+        this.userId = userId;
+        this.restaurantId = restaurantId;
+        this.addressId = addressId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * The restaurant the user works for, or null if none.
+     */
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    /**
+     * The address of the user, or null if none.
+     */
+    public Long getAddressId() {
+        return addressId;
+    }
+
+    /**
+     * Whether the token carried the user's IDs.
+     */
+    public boolean hasClaims() {
+        return userId != null;
+    }
+}
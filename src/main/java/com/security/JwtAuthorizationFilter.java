@@ -37,6 +37,8 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
     /**
      * Checks the request for a JWT token, validates it, and sets the user as authenticated if valid.
+     * The blacklist is checked before the verified-token cache, so a logged-out token is refused at once.
+     * The principal is an {@link AuthenticatedUser} with the IDs the token carries.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -50,13 +52,13 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            if (!jwtTokenUtil.validateToken(token)) {
+            Authentication auth = jwtTokenUtil.getVerifiedAuthentication(token);
+            if (auth == null) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("{\"error\": \"Invalid or expired token.\"}");
                 return;
             }
 
-            Authentication auth = jwtTokenUtil.getAuthentication(token);
             SecurityContextHolder.getContext().setAuthentication(auth);
         }
 
@@ -1,23 +1,72 @@
 package com.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.dto.AppUserSnapshot;
 import io.jsonwebtoken.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class for handling JWT operations such as generation, validation.
+ * <p>
+ * Verified tokens are cached with their {@link Authentication} until the token expires, so a client sending
+ * the same token on every request has it parsed and its signature checked only once.
  */
 @Component
 public class JwtTokenUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtil.class);
+
+    private static final String USER_ID = "userId";
+    private static final String RESTAURANT_ID = "restaurantId";
+    private static final String ADDRESS_ID = "addressId";
+
     private final String secretKey = "yourSecretKey"; // Should replace this with a secure key in production
     private final long expirationTime = 1000 * 60 * 60; // Token expiration time is set to (1 hour)
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    @Autowired
+    public JwtTokenUtil(@Value("${jwt.verified-token-cache.maximum-size:10000}") long cacheSize) {
+        this(cacheSize, Ticker.systemTicker());
+    }
+
+    JwtTokenUtil(long cacheSize, Ticker ticker) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        // Evicted when the token expires
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(verified.expiresAt() - System.currentTimeMillis(), 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
 
     /**
      * This function generates a JWT token for a given username and role.
@@ -27,13 +76,35 @@ public class JwtTokenUtil {
      * @return A signed JWT token.
      */
     public String generateToken(String username, String role) {
+        return builder(username, role).compact();
+    }
+
+    /**
+     * Generates a JWT token for a user that also carries the user's ID, restaurant ID and address ID, so
+     * requests can be authorized without looking the user up.
+     *
+     * @param user The authenticated user.
+     * @return A signed JWT token.
+     */
+    public String generateToken(AppUserSnapshot user) {
+        JwtBuilder builder = builder(user.username(), user.role().name())
+                .claim(USER_ID, user.id());
+        if (user.restaurantId() != null) {
+            builder.claim(RESTAURANT_ID, user.restaurantId());
+        }
+        if (user.addressId() != null) {
+            builder.claim(ADDRESS_ID, user.addressId());
+        }
+        return builder.compact();
+    }
+
+    private JwtBuilder builder(String username, String role) {
         return Jwts.builder()
                 .setSubject(username)
                 .claim("role", "ROLE_" + role)  // Ensure correct role format
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(SignatureAlgorithm.HS256, secretKey)
-                .compact();
+                .signWith(SignatureAlgorithm.HS256, secretKey);
     }
 
 
@@ -56,6 +127,55 @@ public class JwtTokenUtil {
         }
     }
 
+    /**
+     * Verifies a token and returns its Authentication, parsing the token at most once while it is valid.
+     *
+     * @param token The JWT token.
+     * @return The Authentication of the token, or null if the token is invalid or expired.
+     */
+    public Authentication getVerifiedAuthentication(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached.authentication();
+        }
+
+        Claims claims;
+        try {
+            claims = getClaimsFromToken(token);
+        } catch (ExpiredJwtException e) {
+            logger.debug("Token expired: {}", e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Invalid token: {}", e.getMessage());
+            return null;
+        }
+
+        Authentication authentication = toAuthentication(claims, token);
+        if (claims.getExpiration() != null) { // Tokens without an expiry are verified on every use
+            verifiedTokens.put(token, new VerifiedToken(authentication, claims.getExpiration().getTime()));
+        }
+        return authentication;
+    }
+
+    /**
+     * Returns when a valid token expires.
+     *
+     * @param token The JWT token.
+     * @return The expiry ({@link Instant#MAX} if the token never expires), or null if the token is invalid or expired.
+     */
+    public Instant getExpiration(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return Instant.ofEpochMilli(cached.expiresAt());
+        }
+        try {
+            Date expiration = getClaimsFromToken(token).getExpiration();
+            return expiration != null ? expiration.toInstant() : Instant.MAX;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     /**
      * Extracts claims from a JWT token.
      *
@@ -76,14 +196,27 @@ public class JwtTokenUtil {
      * @return An Authentication object containing the user's details and authorities.
      */
     public Authentication getAuthentication(String token) {
-        Claims claims = getClaimsFromToken(token);
+        return toAuthentication(getClaimsFromToken(token), token);
+    }
+
+    private static Authentication toAuthentication(Claims claims, String token) {
         String username = claims.getSubject(); // Extract the username
         String role = claims.get("role", String.class); // Extract the role
 
-        // Create a Spring Security User with the extracted information
-        User principal = new User(username, "", Collections.singletonList(new SimpleGrantedAuthority(role)));
+        // Create the principal with the extracted information; the IDs are null in tokens issued without them
+        AuthenticatedUser principal = new AuthenticatedUser(username,
+                Collections.singletonList(new SimpleGrantedAuthority(role)),
+                getId(claims, USER_ID), getId(claims, RESTAURANT_ID), getId(claims, ADDRESS_ID));
 
         // Return an authentication token with the user's authorities
         return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
     }
+
+    private static Long getId(Claims claims, String name) {
+        Number id = claims.get(name, Number.class); // Small values are parsed as Integer
+        return id != null ? id.longValue() : null;
+    }
+
+    private record VerifiedToken(Authentication authentication, long expiresAt) {
+    }
 }
@@ -0,0 +1,418 @@
+package com.service;
+
+import com.dto.CustomerOrderDTO;
+import com.event.OrderClaimedEvent;
+import com.event.OrderStatusChangedEvent;
+import com.model.OrderStatus;
+import com.repository.CustomerOrderRepository;
+import com.utils.OrderUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory index of the orders in the active delivery statuses, by status and by assigned courier.
+ * <p>
+ * The index is an immutable snapshot behind a volatile reference, so reads never lock or touch the database.
+ * All writes run on the board's own thread: after a status change or claim commits, the request thread only
+ * hands the order ID over, and the board thread re-reads the one order and publishes a new snapshot. As the
+ * reads happen in order on one thread, the last refresh always applies the latest committed state. A request
+ * may therefore read the board a moment before its own change shows up. Writes copy the snapshot, which is
+ * cheap for the few thousand orders that are out for delivery at once. The board is loaded at startup and
+ * rebuilt every {@code delivery.board.reconcile-interval} to heal drift, e.g. from status changes made outside
+ * the services.
+ * <p>
+ * {@link Listener}s receive the board and then every change to it, including the ones reconciliation finds.
+ * <p>
+ * Listed orders are shared between requests and must not be modified.
+ */
+@Service
+public class ActiveOrderBoard implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveOrderBoard.class);
+    private static final int REFRESH_BATCH_SIZE = 1000; // Orders re-read per query, well below the bind parameter limit
+
+    private final CustomerOrderRepository customerOrderRepository;
+    private final ScheduledExecutorService executor;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot; // Null until loaded; only replaced on the board thread
+
+    @Autowired
+    public ActiveOrderBoard(CustomerOrderRepository customerOrderRepository,
+                            @Value("${delivery.board.reconcile-interval:1m}") Duration reconcileInterval) {
+        this(customerOrderRepository, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "active-order-board");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        long intervalMillis = reconcileInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::reconcileQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    ActiveOrderBoard(CustomerOrderRepository customerOrderRepository, ScheduledExecutorService executor) {
+        this.customerOrderRepository = customerOrderRepository;
+        this.executor = executor;
+    }
+
+    /**
+     * Lists the orders with one of the given statuses and an ID below {@code beforeId}, newest first.
+     *
+     * @param limit The maximum number of orders to return.
+     */
+    public List<CustomerOrderDTO> findPageByStatusesBefore(List<OrderStatus> statuses, long beforeId, int limit) {
+        Snapshot board = loadedSnapshot();
+        List<CustomerOrderDTO> orders = new ArrayList<>();
+        for (OrderStatus status : statuses) {
+            NavigableMap<Long, Entry> entries = board.byStatus().get(status);
+            if (entries != null) {
+                entries.tailMap(beforeId, false).values().stream()
+                        .limit(limit)
+                        .forEach(entry -> orders.add(entry.order()));
+            }
+        }
+        orders.sort(Comparator.comparing(CustomerOrderDTO::getId).reversed());
+        return orders.size() > limit ? orders.subList(0, limit) : orders;
+    }
+
+    /**
+     * Lists the orders assigned to a courier with one of the given statuses, newest first.
+     */
+    public List<CustomerOrderDTO> findByDeliveryPersonAndStatuses(String deliveryPerson, List<OrderStatus> statuses) {
+        NavigableMap<Long, Entry> entries = loadedSnapshot().byCourier().get(deliveryPerson);
+        if (entries == null) {
+            return List.of();
+        }
+        return entries.values().stream()
+                .filter(entry -> statuses.contains(entry.status()))
+                .map(Entry::order)
+                .toList();
+    }
+
+    /**
+     * Lists the IDs of the claimable orders nobody is assigned to, oldest first.
+     */
+    public List<Long> findUnassignedOrderIds() {
+        List<OrderStatus> claimableStatuses = OrderUtils.getClaimableStatuses();
+        return loadedSnapshot().byId().values().stream()
+                .filter(entry -> entry.deliveryPerson() == null && claimableStatuses.contains(entry.status()))
+                .map(entry -> entry.order().getId())
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Counts the active orders assigned to each courier. Couriers without active orders are absent.
+     */
+    public Map<String, Integer> getCourierLoads() {
+        Map<String, Integer> loads = new HashMap<>();
+        loadedSnapshot().byCourier().forEach((courier, entries) -> loads.put(courier, entries.size()));
+        return loads;
+    }
+
+    /**
+     * Receives the board and then every change to it, in order, on the board's thread. Implementations must
+     * return quickly and must not modify the orders.
+     */
+    public interface Listener {
+
+        /**
+         * The whole board, newest first. Called once, before any change.
+         */
+        void onBoard(List<CustomerOrderDTO> orders);
+
+        void onOrderAdded(CustomerOrderDTO order);
+
+        /**
+         * The order moved to another active status.
+         */
+        void onOrderUpdated(CustomerOrderDTO order);
+
+        /**
+         * The order left the active statuses.
+         */
+        void onOrderRemoved(Long orderId);
+
+        void onOrderClaimed(Long orderId, String deliveryPerson);
+    }
+
+    /**
+     * Sends the current board to a listener, loading it first if needed, and then every change to it.
+     */
+    public void addListener(Listener listener) {
+        executor.execute(() -> {
+            try {
+                listener.onBoard(loadIfAbsent().byId().values().stream()
+                        .map(Entry::order)
+                        .sorted(Comparator.comparing(CustomerOrderDTO::getId).reversed())
+                        .toList());
+                listeners.add(listener);
+            } catch (RuntimeException e) {
+                logger.warn("Could not send the active order board to a listener", e);
+            }
+        });
+    }
+
+    /**
+     * Stops sending changes to a listener. Runs on the board thread after any pending {@link #addListener}, so a
+     * listener removed before it was added is not added afterwards.
+     */
+    public void removeListener(Listener listener) {
+        try {
+            executor.execute(() -> listeners.remove(listener));
+        } catch (RejectedExecutionException e) { // Shutting down
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * The number of listeners receiving changes.
+     */
+    int getListenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Updates the order on the board once its status change is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        List<OrderStatus> activeStatuses = OrderUtils.getActiveDeliveryStatuses();
+        if (activeStatuses.contains(event.previousStatus()) || activeStatuses.contains(event.status())) {
+            executor.execute(() -> refreshQuietly(event.orderId()));
+        }
+    }
+
+    /**
+     * Moves the order to its courier once the claim is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderClaimed(OrderClaimedEvent event) {
+        executor.execute(() -> refreshQuietly(event.orderId()));
+    }
+
+    /**
+     * Re-reads the given orders, a batch at a time, and adds them to, updates them on or removes them from the
+     * board, all in one new snapshot. Runs on the board thread. Skipped until the board is loaded, as loading reads the
+     * committed state anyway.
+     */
+    void refresh(Collection<Long> orderIds) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Map<Long, Entry> entries = new HashMap<>(current.byId());
+        List<Long> ids = List.copyOf(orderIds);
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + REFRESH_BATCH_SIZE, ids.size()));
+            Map<Long, CustomerOrderRepository.DeliveryAssignment> assignments =
+                    customerOrderRepository.findDeliveryAssignmentsByIds(batch).stream()
+                            .filter(assignment -> OrderUtils.getActiveDeliveryStatuses().contains(assignment.getStatus()))
+                            .collect(Collectors.toMap(CustomerOrderRepository.DeliveryAssignment::getId, Function.identity()));
+            Map<Long, CustomerOrderDTO> orders = assignments.isEmpty() ? Map.of()
+                    : customerOrderRepository.findDtosByIds(assignments.keySet()).stream()
+                            .collect(Collectors.toMap(CustomerOrderDTO::getId, Function.identity()));
+            for (Long orderId : batch) {
+                CustomerOrderRepository.DeliveryAssignment assignment = assignments.get(orderId);
+                CustomerOrderDTO order = orders.get(orderId);
+                if (assignment != null && order != null) {
+                    entries.put(orderId, new Entry(order, assignment.getStatus(), assignment.getDeliveryPerson()));
+                } else {
+                    entries.remove(orderId);
+                }
+            }
+        }
+        publish(current, Snapshot.of(entries.values()), ids);
+    }
+
+    /**
+     * Re-reads the given orders on the board thread and waits until the board shows them, for background jobs
+     * that change many orders at once. Not for request threads, which leave this to the events.
+     */
+    public void refreshNow(Collection<Long> orderIds) {
+        awaitOnBoardThread(() -> {
+            refresh(orderIds);
+            return null;
+        });
+    }
+
+    private void refreshQuietly(Long orderId) {
+        try {
+            refresh(List.of(orderId));
+        } catch (RuntimeException e) {
+            logger.warn("Could not refresh order {} on the active order board; reconciliation will pick it up", orderId, e);
+        }
+    }
+
+    /**
+     * Rebuilds the board from the database and returns the number of orders that had drifted.
+     * Runs on the board thread.
+     */
+    int reconcile() {
+        List<OrderStatus> activeStatuses = OrderUtils.getActiveDeliveryStatuses();
+        Map<Long, String> deliveryPersons = customerOrderRepository.findDeliveryAssignmentsByStatuses(activeStatuses)
+                .stream()
+                .collect(Collectors.toMap(CustomerOrderRepository.DeliveryAssignment::getId,
+                        CustomerOrderRepository.DeliveryAssignment::getDeliveryPerson));
+        List<Entry> entries = customerOrderRepository.findByStatuses(activeStatuses).stream()
+                .map(order -> new Entry(order, OrderStatus.valueOf(order.getStatus()), deliveryPersons.get(order.getId())))
+                .toList();
+
+        Snapshot current = snapshot;
+        Snapshot reloaded = Snapshot.of(entries);
+        if (current == null) {
+            snapshot = reloaded;
+            return 0;
+        }
+        Set<Long> orderIds = Stream.concat(current.byId().keySet().stream(), reloaded.byId().keySet().stream())
+                .collect(Collectors.toSet());
+        publish(current, reloaded, orderIds);
+        return countDrift(current.byId(), reloaded.byId());
+    }
+
+    private void reconcileQuietly() {
+        try {
+            int drift = reconcile();
+            if (drift > 0) {
+                logger.warn("Active order board had drifted on {} orders; reloaded from the database", drift);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not reconcile the active order board: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot loadIfAbsent() {
+        if (snapshot == null) {
+            reconcile();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the board. Only a read before the startup load has finished waits, for the board thread to load it.
+     */
+    private Snapshot loadedSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : awaitOnBoardThread(this::loadIfAbsent);
+    }
+
+    private <T> T awaitOnBoardThread(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the active order board", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Replaces the board and tells the listeners how the given orders changed.
+     */
+    private void publish(Snapshot current, Snapshot next, Collection<Long> orderIds) {
+        snapshot = next;
+        if (listeners.isEmpty()) {
+            return;
+        }
+        for (Long orderId : orderIds) {
+            Entry previous = current.byId().get(orderId);
+            Entry entry = next.byId().get(orderId);
+            for (Listener listener : listeners) {
+                try {
+                    notifyChange(listener, orderId, previous, entry);
+                } catch (RuntimeException e) {
+                    logger.warn("Active order board listener failed on order {}", orderId, e);
+                }
+            }
+        }
+    }
+
+    private static void notifyChange(Listener listener, Long orderId, Entry previous, Entry entry) {
+        if (entry == null) {
+            if (previous != null) {
+                listener.onOrderRemoved(orderId);
+            }
+            return;
+        }
+        if (previous == null) {
+            listener.onOrderAdded(entry.order());
+        } else if (previous.status() != entry.status()) {
+            listener.onOrderUpdated(entry.order());
+        }
+        if (entry.deliveryPerson() != null
+                && (previous == null || !entry.deliveryPerson().equals(previous.deliveryPerson()))) {
+            listener.onOrderClaimed(orderId, entry.deliveryPerson());
+        }
+    }
+
+    private static int countDrift(Map<Long, Entry> before, Map<Long, Entry> after) {
+        int drift = (int) before.keySet().stream().filter(id -> !after.containsKey(id)).count();
+        for (Map.Entry<Long, Entry> entry : after.entrySet()) {
+            Entry previous = before.get(entry.getKey());
+            if (previous == null || previous.status() != entry.getValue().status()
+                    || !Objects.equals(previous.deliveryPerson(), entry.getValue().deliveryPerson())) {
+                drift++;
+            }
+        }
+        return drift;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private record Entry(CustomerOrderDTO order, OrderStatus status, String deliveryPerson) {
+    }
+
+    /**
+     * One immutable version of the board. The maps by status and by courier are ordered by descending ID.
+     */
+    private record Snapshot(Map<Long, Entry> byId,
+                            Map<OrderStatus, NavigableMap<Long, Entry>> byStatus,
+                            Map<String, NavigableMap<Long, Entry>> byCourier) {
+
+        static Snapshot of(Collection<Entry> entries) {
+            Map<OrderStatus, NavigableMap<Long, Entry>> byStatus = new EnumMap<>(OrderStatus.class);
+            Map<String, NavigableMap<Long, Entry>> byCourier = new HashMap<>();
+            for (Entry entry : entries) {
+                byStatus.computeIfAbsent(entry.status(), status -> new TreeMap<>(Comparator.reverseOrder()))
+                        .put(entry.order().getId(), entry);
+                if (entry.deliveryPerson() != null) {
+                    byCourier.computeIfAbsent(entry.deliveryPerson(), courier -> new TreeMap<>(Comparator.reverseOrder()))
+                            .put(entry.order().getId(), entry);
+                }
+            }
+            Map<Long, Entry> byId = entries.stream()
+                    .collect(Collectors.toUnmodifiableMap(entry -> entry.order().getId(), Function.identity()));
+            return new Snapshot(byId, byStatus, byCourier);
+        }
+    }
+}
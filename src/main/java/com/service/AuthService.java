@@ -1,5 +1,6 @@
 package com.service;
 
+import com.dto.AppUserSnapshot;
 import com.dto.LoginRequestDTO;
 import com.dto.UserRegistrationDTO;
 import com.exception.AuthenticationException;
@@ -60,14 +61,13 @@ public class AuthService {
      * @throws AuthenticationException if the password is incorrect.
      */
     public JwtResponse login(LoginRequestDTO request) {
-        AppUser user = userService.getUserByUsername(request.getUsername());
+        AppUserSnapshot user = userService.getUserSnapshot(request.getUsername());
 
-
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), user.password())) {
             throw new AuthenticationException("Incorrect username or password.");
         }
 
-        String token = jwtTokenUtil.generateToken(user.getUsername(), user.getRole().name());
+        String token = jwtTokenUtil.generateToken(user);
         return new JwtResponse(token);
     }
 }
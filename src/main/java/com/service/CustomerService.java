@@ -1,24 +1,31 @@
 package com.service;
 
+import com.dto.AppUserSnapshot;
+import com.dto.CursorPage;
 import com.dto.CustomerOrderDTO;
 import com.dto.MenuItemDTO;
 import com.dto.OrderDTO;
+import com.event.OrderStatusChangedEvent;
 import com.exception.ResourceNotFoundException;
 import com.exception.ValidationException;
 import com.model.*;
-import com.repository.AppUserRepository;
 import com.repository.CustomerOrderRepository;
 import com.repository.MenuItemRepository;
 import com.repository.RestaurantRepository;
+import com.security.AuthenticatedUser;
+import com.utils.AuthUtils;
+import com.utils.CursorUtils;
 import com.utils.ResponseUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.utils.AuthUtils.getAuthenticatedUsername;
 import static com.utils.AuthUtils.getLoggedInUsername;
@@ -31,20 +38,32 @@ public class CustomerService {
 
     private final CustomerOrderRepository customerOrderRepository;
     private final MenuItemRepository menuItemRepository;
-    private final AppUserRepository appUserRepository;
+    private final UserService userService;
     private final RestaurantRepository restaurantRepository;
+    private final InventoryReservationService inventoryReservationService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final MenuCacheService menuCacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     public CustomerService(CustomerOrderRepository customerOrderRepository,
                            MenuItemRepository menuItemRepository,
-                           AppUserRepository appUserRepository,
-                           RestaurantRepository restaurantRepository) {
+                           UserService userService,
+                           RestaurantRepository restaurantRepository,
+                           InventoryReservationService inventoryReservationService,
+                           OrderNumberGenerator orderNumberGenerator,
+                           MenuCacheService menuCacheService,
+                           ApplicationEventPublisher eventPublisher) {
         this.customerOrderRepository = customerOrderRepository;
         this.menuItemRepository = menuItemRepository;
-        this.appUserRepository = appUserRepository;
+        this.userService = userService;
         this.restaurantRepository = restaurantRepository;
+        this.inventoryReservationService = inventoryReservationService;
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.menuCacheService = menuCacheService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -52,24 +71,7 @@ public class CustomerService {
      * If the logged-in user is a RESTAURANT_EMPLOYEE, it includes inventory details.
      */
     public List<MenuItemDTO> getMenuByRestaurantSlug(String slug) {
-        Restaurant restaurant = restaurantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found for slug: " + slug));
-
-        boolean includeInventory = isRestaurantEmployee();
-
-        return restaurant.getMenuItems().stream()
-                .map(menuItem -> new MenuItemDTO(menuItem, includeInventory))
-                .toList();
-    }
-
-    /**
-     * Determines if the currently authenticated user is a RESTAURANT_EMPLOYEE.
-     */
-    private boolean isRestaurantEmployee() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return appUserRepository.findByUsername(username)
-                .map(user -> user.getRole().name().equalsIgnoreCase("RESTAURANT_EMPLOYEE"))
-                .orElse(false);
+        return menuCacheService.getMenu(slug, AuthUtils.isRestaurantEmployee());
     }
 
     /**
@@ -77,14 +79,46 @@ public class CustomerService {
      */
     @Transactional
     public OrderDTO submitOrder(String slug, List<Map<String, Object>> orderItems) {
-        Restaurant restaurant = restaurantRepository.findBySlug(slug)
+        Restaurant restaurant = restaurantRepository.findBySlugWithoutDetails(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found for slug: " + slug));
 
-        AppUser customer = getAuthenticatedCustomer();
+        // The order only needs references to the customer and the address, so their IDs are enough
+        AuthenticatedUser authenticatedUser = AuthUtils.getAuthenticatedUser();
+        Long customerId;
+        Long addressId;
+        if (authenticatedUser != null) {
+            customerId = authenticatedUser.getUserId();
+            addressId = authenticatedUser.getAddressId();
+        } else { // A token issued without the user's IDs
+            AppUserSnapshot snapshot = userService.getUserSnapshot(getAuthenticatedUsername());
+            customerId = snapshot.id();
+            addressId = snapshot.addressId();
+        }
 
-        if (customer.getAddress() == null) {
+        if (addressId == null) {
             throw new ValidationException("Customer address is required to place an order.");
         }
+        AppUser customer = entityManager.getReference(AppUser.class, customerId);
+        Address address = entityManager.getReference(Address.class, addressId);
+
+        Map<Long, Integer> reservedQuantities = new LinkedHashMap<>();
+        for (Map<String, Object> item : orderItems) {
+            if (!(item.get("menuItemId") instanceof Number) || !(item.get("quantity") instanceof Number)) {
+                throw new ValidationException("Each order line requires a numeric 'menuItemId' and 'quantity'.");
+            }
+            Long menuItemId = ((Number) item.get("menuItemId")).longValue();
+            int quantity = ((Number) item.get("quantity")).intValue();
+            if (quantity <= 0) {
+                throw new ValidationException("Quantity must be greater than 0 for menu item ID: " + menuItemId);
+            }
+            reservedQuantities.merge(menuItemId, quantity, Integer::sum);
+        }
+
+        Map<Long, MenuItem> menuItemsById = reservedQuantities.isEmpty()
+                ? Map.of()
+                : menuItemRepository.findByRestaurant_IdAndIdIn(restaurant.getId(), reservedQuantities.keySet())
+                        .stream()
+                        .collect(Collectors.toMap(MenuItem::getId, menuItem -> menuItem));
 
         List<OrderItem> createdOrderItems = new ArrayList<>();
         double totalPrice = 0;
@@ -92,18 +126,13 @@ public class CustomerService {
 
         for (Map<String, Object> item : orderItems) {
             Long menuItemId = ((Number) item.get("menuItemId")).longValue();
-            Integer quantity = ((Number) item.get("quantity")).intValue();
+            int quantity = ((Number) item.get("quantity")).intValue();
 
-            MenuItem menuItem = menuItemRepository.findById(menuItemId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with ID: " + menuItemId));
-
-            if (menuItem.getInventory() < quantity) {
-                throw new ValidationException("Not enough stock for item: " + menuItem.getName());
+            MenuItem menuItem = menuItemsById.get(menuItemId);
+            if (menuItem == null) {
+                throw new ResourceNotFoundException("Menu item not found with ID: " + menuItemId + " for restaurant: " + slug);
             }
 
-            menuItem.reduceInventory(quantity);
-            menuItemRepository.save(menuItem);
-
             OrderItem orderItem = new OrderItem(menuItem, quantity, null);
             createdOrderItems.add(orderItem);
             totalPrice += orderItem.getTotalPrice();
@@ -111,8 +140,17 @@ public class CustomerService {
             itemsDescription.append(quantity).append("x ").append(menuItem.getName()).append(", ");
         }
 
-        Address managedAddress = entityManager.merge(customer.getAddress());
-        CustomerOrder order = new CustomerOrder(customer, createdOrderItems, managedAddress, OrderStatus.UNCONFIRMED, totalPrice, restaurant);
+        // Stock is checked and decremented by the database itself; any shortage rolls back the whole order.
+        List<Long> outOfStock = inventoryReservationService.reserve(reservedQuantities);
+        if (!outOfStock.isEmpty()) {
+            String names = outOfStock.stream()
+                    .map(id -> menuItemsById.get(id).getName())
+                    .collect(Collectors.joining(", "));
+            throw new ValidationException("Not enough stock for item: " + names);
+        }
+        menuCacheService.invalidateInventory(restaurant.getId());
+
+        CustomerOrder order = new CustomerOrder(orderNumberGenerator.nextOrderNumber(), customer, createdOrderItems, address, OrderStatus.UNCONFIRMED, totalPrice, restaurant);
         createdOrderItems.forEach(item -> item.setOrderNumber(order.getOrderNumber()));
         customerOrderRepository.save(order);
 
@@ -124,32 +162,26 @@ public class CustomerService {
                 order.getOrderNumber(),
                 order.getTotalPrice(),
                 order.getStatus(),
-                customer.getUsername(),
+                getAuthenticatedUsername(),
                 itemsSummary
         );
     }
 
     /**
-     * Retrieves the authenticated customer from the database.
-     */
-    private AppUser getAuthenticatedCustomer() {
-        return appUserRepository.findByUsername(getAuthenticatedUsername())
-                .orElseThrow(() -> new ResourceNotFoundException("Authenticated user not found."));
-    }
-
-    /**
-     * Retrieves all orders for the authenticated customer.
+     * Retrieves a page of the authenticated customer's orders, newest first.
      */
-    @Transactional
-    public List<CustomerOrderDTO> getAllOrdersForAuthenticatedUser() {
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerOrderDTO> getAllOrdersForAuthenticatedUser(String cursor, int size) {
         String username = getAuthenticatedUsername();
-        List<CustomerOrder> orders = customerOrderRepository.findByUser_Username(username);
+        int pageSize = CursorUtils.pageSize(size);
+        List<CustomerOrderDTO> orders = customerOrderRepository.findPageByUsernameBefore(
+                username, CursorUtils.decodeBeforeId(cursor), CursorUtils.pageRequest(pageSize));
 
-        if (orders.isEmpty()) {
+        if (orders.isEmpty() && (cursor == null || cursor.isBlank())) {
             throw new ResourceNotFoundException("No orders found for user: " + username);
         }
 
-        return orders.stream().map(CustomerOrderDTO::new).toList();
+        return CursorUtils.toPage(orders, pageSize, CustomerOrderDTO::getId, Function.identity());
     }
 
     /**
@@ -172,6 +204,7 @@ public class CustomerService {
 
             order.setStatus(OrderStatus.CANCELED);
             customerOrderRepository.save(order);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), OrderStatus.UNCONFIRMED, OrderStatus.CANCELED));
             return Map.of("message", "Order successfully canceled.");
         });
     }
@@ -0,0 +1,289 @@
+package com.service;
+
+import com.dto.CustomerOrderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes the delivery order board to couriers over Server-Sent Events.
+ * <p>
+ * A subscriber first receives the whole board ({@value #BOARD}), then incremental events as orders enter
+ * ({@value #ORDER_ADDED}), move within ({@value #ORDER_UPDATED}) or leave ({@value #ORDER_REMOVED}) the active
+ * delivery statuses, or get claimed ({@value #ORDER_CLAIMED}). Both come from the {@link ActiveOrderBoard}, so
+ * neither a new subscriber nor a change costs a query here, and the board is sent before any change after it.
+ * <p>
+ * Every subscriber has a bounded queue of pending events that a pool of {@code delivery.board.writer-threads}
+ * writer threads drains, one send at a time per subscriber. A subscriber whose queue overflows, or whose send has
+ * not completed within {@code delivery.board.send-timeout}, is dropped; its client reconnects and gets a fresh
+ * board. A send blocked on a dead connection cannot be cancelled: it holds its writer until the servlet
+ * container's write timeout. The pool is therefore grown by one thread for every writer stuck like that, and
+ * shrunk again once the send returns, so stalled couriers never take the writers of the others. A heartbeat
+ * comment is queued every {@code delivery.board.heartbeat-interval} so proxies keep idle streams open and
+ * closed streams are noticed.
+ */
+@Service
+public class DeliveryBoardService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryBoardService.class);
+
+    static final String BOARD = "board";
+    static final String ORDER_ADDED = "order-added";
+    static final String ORDER_UPDATED = "order-updated";
+    static final String ORDER_REMOVED = "order-removed";
+    static final String ORDER_CLAIMED = "order-claimed";
+
+    private final ActiveOrderBoard activeOrderBoard;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final int queueCapacity;
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor writers;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public DeliveryBoardService(ActiveOrderBoard activeOrderBoard,
+                                @Value("${delivery.board.timeout:30m}") Duration timeout,
+                                @Value("${delivery.board.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                @Value("${delivery.board.send-timeout:10s}") Duration sendTimeout,
+                                @Value("${delivery.board.queue-capacity:256}") int queueCapacity,
+                                @Value("${delivery.board.writer-threads:4}") int writerThreads) {
+        this.activeOrderBoard = activeOrderBoard;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.queueCapacity = queueCapacity;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-board");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerCount = new AtomicInteger();
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "delivery-board-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        scheduler.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream for a courier that starts with the current board.
+     */
+    public SseEmitter subscribe(String deliveryPerson) {
+        SseEmitter emitter = newEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(deliveryPerson, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        activeOrderBoard.addListener(subscriber);
+        return emitter;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * The number of open streams.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * The usernames of the couriers with an open stream.
+     */
+    public Set<String> getSubscribedCouriers() {
+        return subscribers.stream().map(subscriber -> subscriber.deliveryPerson).collect(Collectors.toSet());
+    }
+
+    private void sendHeartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                logger.debug("Dropping a delivery board subscriber whose send has not completed");
+                subscriber.releaseWriter();
+                subscriber.drop();
+            } else {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    /**
+     * Grows or shrinks the writer pool, for writers stuck in or returning from a stalled send.
+     */
+    private synchronized void resizeWriters(int delta) {
+        int size = writers.getCorePoolSize() + delta;
+        if (delta > 0) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        activeOrderBoard.removeListener(subscriber);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        subscribers.forEach(Subscriber::drop);
+        writers.shutdown();
+    }
+
+    /**
+     * One open stream. Board changes are queued on the board thread and sent by a writer thread.
+     */
+    private final class Subscriber implements ActiveOrderBoard.Listener {
+
+        private final String deliveryPerson;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private long sendStartedAt; // System.nanoTime() of the send in progress, 0 if none; guarded by this
+        private boolean writerReplaced; // Whether the pool was grown for the send in progress; guarded by this
+
+        Subscriber(String deliveryPerson, SseEmitter emitter) {
+            this.deliveryPerson = deliveryPerson;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onBoard(List<CustomerOrderDTO> orders) {
+            enqueue(SseEmitter.event().name(BOARD).data(orders));
+        }
+
+        @Override
+        public void onOrderAdded(CustomerOrderDTO order) {
+            enqueue(SseEmitter.event().name(ORDER_ADDED).data(order));
+        }
+
+        @Override
+        public void onOrderUpdated(CustomerOrderDTO order) {
+            enqueue(SseEmitter.event().name(ORDER_UPDATED).data(order));
+        }
+
+        @Override
+        public void onOrderRemoved(Long orderId) {
+            enqueue(SseEmitter.event().name(ORDER_REMOVED).data(Map.of("id", orderId)));
+        }
+
+        @Override
+        public void onOrderClaimed(Long orderId, String deliveryPerson) {
+            enqueue(SseEmitter.event().name(ORDER_CLAIMED).data(Map.of("id", orderId, "deliveryPerson", deliveryPerson)));
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("Dropping a delivery board subscriber that fell {} events behind", queueCapacity);
+                drop();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        synchronized boolean isStalled(long now) {
+            return sendStartedAt != 0 && now - sendStartedAt > sendTimeoutNanos;
+        }
+
+        /**
+         * Adds a writer to the pool in place of the one stuck sending to this subscriber.
+         */
+        synchronized void releaseWriter() {
+            if (sendStartedAt != 0 && !writerReplaced) {
+                writerReplaced = true;
+                resizeWriters(1);
+            }
+        }
+
+        private synchronized void startSend() {
+            sendStartedAt = System.nanoTime();
+        }
+
+        private synchronized void endSend() {
+            sendStartedAt = 0;
+            if (writerReplaced) {
+                writerReplaced = false;
+                resizeWriters(-1);
+            }
+        }
+
+        /**
+         * Stops the stream. The emitter is completed by a writer, never while a send to it is in progress.
+         */
+        void drop() {
+            unsubscribe(this);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RuntimeException e) { // Shutting down
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                if (closed) {
+                    queue.clear();
+                    emitter.complete();
+                    return; // Leaves draining set, so nothing is scheduled for this subscriber again
+                }
+                SseEmitter.SseEventBuilder event = queue.poll();
+                if (event == null) {
+                    draining.set(false);
+                    // An event queued after the poll and before the reset would otherwise wait for the next one
+                    if ((queue.isEmpty() && !closed) || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                startSend();
+                try {
+                    emitter.send(event);
+                } catch (IOException | RuntimeException e) {
+                    unsubscribe(this);
+                } finally {
+                    endSend();
+                }
+            }
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.service;
 
+import com.dto.CursorPage;
 import com.dto.CustomerOrderDTO;
+import com.event.OrderClaimedEvent;
+import com.event.OrderStatusChangedEvent;
 import com.exception.ResourceNotFoundException;
 import com.exception.ValidationException;
 import com.model.CustomerOrder;
 import com.model.OrderStatus;
 import com.repository.CustomerOrderRepository;
 import com.utils.AuthUtils;
+import com.utils.CursorUtils;
 import com.utils.OrderUtils;
 import com.utils.ValidationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -27,29 +36,41 @@ public class DeliveryService {
     private static final Logger logger = LoggerFactory.getLogger(DeliveryService.class);
 
     private final CustomerOrderRepository customerOrderRepository;
+    private final ActiveOrderBoard activeOrderBoard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
      * Constructor-based Dependency Injection for required repositories.
      */
-    public DeliveryService(CustomerOrderRepository customerOrderRepository) {
+    public DeliveryService(CustomerOrderRepository customerOrderRepository, ActiveOrderBoard activeOrderBoard,
+                           ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate) {
         this.customerOrderRepository = customerOrderRepository;
+        this.activeOrderBoard = activeOrderBoard;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     /**
-     * Retrieves all orders relevant to delivery personnel.
+     * Retrieves a page of orders relevant to delivery personnel, newest first, from the in-memory board.
      */
-    public List<CustomerOrderDTO> getAllDeliveryOrders() {
-        List<CustomerOrder> orders = customerOrderRepository.findByStatusesWithDetails(OrderUtils.getActiveDeliveryStatuses());
+    public CursorPage<CustomerOrderDTO> getAllDeliveryOrders(String cursor, int size) {
+        int pageSize = CursorUtils.pageSize(size);
+        List<CustomerOrderDTO> orders = activeOrderBoard.findPageByStatusesBefore(
+                OrderUtils.getActiveDeliveryStatuses(), CursorUtils.decodeBeforeId(cursor), pageSize + 1);
 
         if (orders.isEmpty()) {
             logger.info("No active delivery orders found.");
         }
 
-        return orders.stream().map(CustomerOrderDTO::new).collect(Collectors.toList());
+        return CursorUtils.toPage(orders, pageSize, CustomerOrderDTO::getId, Function.identity());
     }
 
     /**
      * Assigns the logged-in delivery person to an order.
+     * <p>
+     * The claim is a single conditional update, so of several couriers claiming the same order at once exactly
+     * one wins. The order is only read when the claim fails, to tell the caller why.
      */
     @Transactional
     public Map<String, Object> assignOrder(String identifier) {
@@ -58,28 +79,81 @@ public class DeliveryService {
             throw new ValidationException("User must be authenticated to assign an order.");
         }
 
-        CustomerOrder order = OrderUtils.findOrderByIdentifier(customerOrderRepository, identifier);
-        if (order == null) {
-            throw new ResourceNotFoundException("Order not found with identifier: " + identifier);
+        Long orderId = resolveOrderId(identifier);
+        if (customerOrderRepository.claimForDelivery(orderId, loggedInUser, OrderUtils.getClaimableStatuses()) == 0) {
+            CustomerOrderRepository.DeliveryAssignment assignment = customerOrderRepository.findDeliveryAssignmentById(orderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with identifier: " + identifier));
+            if (loggedInUser.equals(assignment.getDeliveryPerson())) {
+                // A retried claim of an order this courier already holds
+                return Map.of(
+                        "message", "Delivery person assigned successfully.",
+                        "orderId", orderId
+                );
+            }
+            if (assignment.getDeliveryPerson() != null) {
+                throw new ValidationException("Order is already assigned to another delivery person.");
+            }
+            throw new ValidationException("Order cannot be assigned in status " + assignment.getStatus() + ".");
         }
 
-        if (order.getDeliveryPerson() != null) {
-            throw new ValidationException("Order is already assigned to another delivery person.");
-        }
-
-        order.setDeliveryPerson(loggedInUser);
-        customerOrderRepository.save(order);
-
+        eventPublisher.publishEvent(new OrderClaimedEvent(orderId, loggedInUser));
         logger.info("Order {} assigned to {}", identifier, loggedInUser);
 
         return Map.of(
                 "message", "Delivery person assigned successfully.",
-                "orderId", order.getId()
+                "orderId", orderId
         );
     }
 
     /**
-     * Retrieves assigned orders for the logged-in delivery person.
+     * Assigns orders to delivery persons on behalf of the dispatcher, with the same race-free claim as
+     * {@link #assignOrder(String)}, all in one JDBC batch and one transaction. Publishes no
+     * {@link OrderClaimedEvent}s; the dispatcher refreshes the {@link ActiveOrderBoard} once for the round.
+     *
+     * @return The IDs of the orders that were claimed; orders taken or moved on meanwhile are left out.
+     */
+    @Transactional
+    public List<Long> dispatchOrders(List<DispatchPlanner.Assignment> assignments) {
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+
+        List<OrderStatus> claimableStatuses = OrderUtils.getClaimableStatuses();
+        String sql = "UPDATE customer_order SET delivery_person = ? WHERE id = ? AND delivery_person IS NULL"
+                + " AND status IN (" + String.join(", ", Collections.nCopies(claimableStatuses.size(), "?")) + ")";
+        List<Object[]> batchArgs = new ArrayList<>(assignments.size());
+        for (DispatchPlanner.Assignment assignment : assignments) {
+            List<Object> args = new ArrayList<>(claimableStatuses.size() + 2);
+            args.add(assignment.deliveryPerson());
+            args.add(assignment.orderId());
+            claimableStatuses.forEach(status -> args.add(status.name()));
+            batchArgs.add(args.toArray());
+        }
+
+        // Plans hand out orders oldest first, so rows are locked in ascending ID order as in a courier's claim
+        int[] updateCounts = jdbcTemplate.batchUpdate(sql, batchArgs);
+        List<Long> claimed = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] != 0) {
+                claimed.add(assignments.get(i).orderId());
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Resolves an order ID or order number to the order ID without loading the order.
+     */
+    private Long resolveOrderId(String identifier) {
+        if (identifier.matches("\\d+")) {
+            return Long.parseLong(identifier);
+        }
+        return customerOrderRepository.findIdByOrderNumber(identifier)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + identifier));
+    }
+
+    /**
+     * Retrieves assigned orders for the logged-in delivery person from the in-memory board.
      */
     public List<CustomerOrderDTO> getAssignedOrders() {
         String loggedInUser = AuthUtils.getAuthenticatedUsername();
@@ -88,7 +162,7 @@ public class DeliveryService {
         }
 
         List<OrderStatus> statuses = OrderUtils.getInProgressStatuses();
-        List<CustomerOrder> assignedOrders = customerOrderRepository.findByDeliveryPersonAndStatuses(loggedInUser, statuses);
+        List<CustomerOrderDTO> assignedOrders = activeOrderBoard.findByDeliveryPersonAndStatuses(loggedInUser, statuses);
 
         if (assignedOrders.isEmpty()) {
             logger.warn("No assigned orders found for user: {}", loggedInUser);
@@ -96,25 +170,28 @@ public class DeliveryService {
             logger.info("Found {} assigned orders for user: {}", assignedOrders.size(), loggedInUser);
         }
 
-        return assignedOrders.stream().map(CustomerOrderDTO::new).collect(Collectors.toList());
+        return assignedOrders;
     }
 
     /**
-     * Retrieves the delivery history for the logged-in delivery person.
+     * Retrieves a page of the delivery history for the logged-in delivery person, newest first.
      */
-    public List<CustomerOrderDTO> getDeliveryHistory() {
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerOrderDTO> getDeliveryHistory(String cursor, int size) {
         String loggedInUser = AuthUtils.getAuthenticatedUsername();
         if (loggedInUser == null) {
             throw new ValidationException("User must be authenticated to fetch delivery history.");
         }
 
-        List<CustomerOrder> history = customerOrderRepository.findByDeliveryPersonAndStatuses(loggedInUser, List.of(OrderStatus.DELIVERED));
+        int pageSize = CursorUtils.pageSize(size);
+        List<CustomerOrderDTO> history = customerOrderRepository.findPageByDeliveryPersonAndStatusesBefore(
+                loggedInUser, List.of(OrderStatus.DELIVERED), CursorUtils.decodeBeforeId(cursor), CursorUtils.pageRequest(pageSize));
 
         if (history.isEmpty()) {
             logger.info("No delivery history found for {}", loggedInUser);
         }
 
-        return history.stream().map(CustomerOrderDTO::new).collect(Collectors.toList());
+        return CursorUtils.toPage(history, pageSize, CustomerOrderDTO::getId, Function.identity());
     }
 
     /**
@@ -162,10 +239,12 @@ public class DeliveryService {
 
         ValidationUtils.validateDeliveryPerson(order, loggedInUser);
         OrderStatus newStatus = ValidationUtils.parseOrderStatus(status);
-        ValidationUtils.ensureValidStatusTransition(order.getStatus(), newStatus);
+        OrderStatus previousStatus = order.getStatus();
+        ValidationUtils.ensureValidStatusTransition(previousStatus, newStatus);
 
         order.setStatus(newStatus);
         customerOrderRepository.save(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), previousStatus, newStatus));
 
         logger.info("Order {} updated to status {}", identifier, newStatus);
 
@@ -0,0 +1,64 @@
+package com.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Computes which courier should take which unassigned order.
+ * <p>
+ * Orders are handed out oldest first, each to the courier with the fewest active orders (ties broken by
+ * username, so a plan is repeatable). Couriers are kept in a min-heap on their load, which makes a plan
+ * O((orders + couriers) log couriers). A courier who reaches the maximum load leaves the heap, and planning
+ * stops when no courier is left.
+ */
+public final class DispatchPlanner {
+
+    private DispatchPlanner() {} // Prevent instantiation
+
+    /**
+     * One planned assignment.
+     */
+    public record Assignment(Long orderId, String deliveryPerson) {
+    }
+
+    /**
+     * Plans the assignments of one dispatch round.
+     *
+     * @param orderIds  The unassigned orders, oldest first.
+     * @param couriers  The couriers that can take orders.
+     * @param loads     The number of active orders per courier; absent couriers have none.
+     * @param maxLoad   The number of active orders at which a courier gets no more.
+     * @return The assignments, in the order of {@code orderIds}.
+     */
+    public static List<Assignment> plan(List<Long> orderIds, Collection<String> couriers,
+                                        Map<String, Integer> loads, int maxLoad) {
+        PriorityQueue<CourierLoad> available = new PriorityQueue<>(Math.max(couriers.size(), 1),
+                Comparator.comparingInt(CourierLoad::load).thenComparing(CourierLoad::username));
+        for (String courier : couriers) {
+            int load = loads.getOrDefault(courier, 0);
+            if (load < maxLoad) {
+                available.add(new CourierLoad(courier, load));
+            }
+        }
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            CourierLoad courier = available.poll();
+            if (courier == null) {
+                break;
+            }
+            assignments.add(new Assignment(orderId, courier.username()));
+            if (courier.load() + 1 < maxLoad) {
+                available.add(new CourierLoad(courier.username(), courier.load() + 1));
+            }
+        }
+        return assignments;
+    }
+
+    private record CourierLoad(String username, int load) {
+    }
+}
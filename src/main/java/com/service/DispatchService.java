@@ -0,0 +1,133 @@
+package com.service;
+
+import com.event.OrderClaimedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigns unassigned delivery orders to available couriers automatically.
+ * <p>
+ * Disabled unless {@code delivery.dispatch.enabled} is set. Every {@code delivery.dispatch.interval} a round
+ * reads the unassigned orders and courier loads from the {@link ActiveOrderBoard}, plans the assignments with
+ * the {@link DispatchPlanner}, applies them with {@link DeliveryService#dispatchOrders} in one batch of the same
+ * conditional claim couriers use, so an order a courier takes in the meantime is simply skipped, and then
+ * refreshes the board once for all claimed orders. Rounds run one at a time on a thread of this service, never
+ * on a request thread.
+ * <p>
+ * Couriers have no shift or online status, so a courier counts as available while they have the delivery board
+ * stream open, or for {@code delivery.dispatch.recent-claim-window} after they last claimed an order themselves.
+ * Couriers who are logged out, or only use the app without the stream, get no orders until they claim one.
+ */
+@Service
+public class DispatchService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchService.class);
+
+    private final ActiveOrderBoard activeOrderBoard;
+    private final DeliveryBoardService deliveryBoardService;
+    private final DeliveryService deliveryService;
+    private final int maxLoad;
+    private final Cache<String, Boolean> recentClaimers;
+    private final ScheduledExecutorService executor;
+
+    public DispatchService(ActiveOrderBoard activeOrderBoard,
+                           DeliveryBoardService deliveryBoardService,
+                           DeliveryService deliveryService,
+                           @Value("${delivery.dispatch.enabled:false}") boolean enabled,
+                           @Value("${delivery.dispatch.interval:10s}") Duration interval,
+                           @Value("${delivery.dispatch.max-load:3}") int maxLoad,
+                           @Value("${delivery.dispatch.recent-claim-window:15m}") Duration recentClaimWindow) {
+        this.activeOrderBoard = activeOrderBoard;
+        this.deliveryBoardService = deliveryBoardService;
+        this.deliveryService = deliveryService;
+        this.maxLoad = maxLoad;
+        this.recentClaimers = Caffeine.newBuilder()
+                .expireAfterWrite(recentClaimWindow)
+                .build();
+        if (enabled) {
+            this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "delivery-dispatch");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = interval.toMillis();
+            executor.scheduleWithFixedDelay(this::dispatchQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Marks the courier as available once their own claim is committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderClaimed(OrderClaimedEvent event) {
+        recentClaimers.put(event.deliveryPerson(), Boolean.TRUE);
+    }
+
+    /**
+     * Lists the couriers with an open board stream or a recent claim, by username.
+     */
+    List<String> findAvailableCouriers() {
+        Set<String> couriers = new TreeSet<>(deliveryBoardService.getSubscribedCouriers());
+        couriers.addAll(recentClaimers.asMap().keySet());
+        return new ArrayList<>(couriers);
+    }
+
+    /**
+     * Runs one dispatch round, including the board refresh.
+     *
+     * @return The number of orders assigned.
+     */
+    public int dispatch() {
+        List<Long> orderIds = activeOrderBoard.findUnassignedOrderIds();
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        List<String> couriers = findAvailableCouriers();
+        List<DispatchPlanner.Assignment> plan =
+                DispatchPlanner.plan(orderIds, couriers, activeOrderBoard.getCourierLoads(), maxLoad);
+        if (plan.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> claimed = deliveryService.dispatchOrders(plan);
+        if (!claimed.isEmpty()) {
+            activeOrderBoard.refreshNow(claimed);
+        }
+        logger.info("Dispatched {} of {} unassigned orders to {} available couriers",
+                claimed.size(), orderIds.size(), couriers.size());
+        return claimed.size();
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            logger.warn("Dispatch round failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserves menu item inventory for an order using conditional updates,
+ * so concurrent orders can never oversell an item.
+ */
+@Service
+public class InventoryReservationService {
+
+    private static final String RESERVE_SQL =
+            "UPDATE menu_item SET inventory = inventory - ? WHERE id = ? AND inventory >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryReservationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Decrements the inventory of every requested menu item in a single JDBC batch, in ascending ID order.
+     * Must run inside the caller's transaction so that a partial reservation is rolled back
+     * when the caller rejects the order.
+     *
+     * @param quantities Quantity to reserve per menu item ID.
+     * @return IDs of the menu items that did not have enough stock (empty if all lines were reserved).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> reserve(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+
+        // Rows are locked in ascending ID order, so concurrent orders with overlapping items cannot deadlock
+        List<Long> menuItemIds = new ArrayList<>(quantities.keySet());
+        Collections.sort(menuItemIds);
+        List<Object[]> batchArgs = new ArrayList<>(menuItemIds.size());
+        for (Long menuItemId : menuItemIds) {
+            int quantity = quantities.get(menuItemId);
+            batchArgs.add(new Object[]{quantity, menuItemId, quantity});
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(RESERVE_SQL, batchArgs);
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                failed.add(menuItemIds.get(i));
+            }
+        }
+        return failed;
+    }
+}
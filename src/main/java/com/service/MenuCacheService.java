@@ -0,0 +1,217 @@
+package com.service;
+
+import com.dto.MenuItemDTO;
+import com.exception.ResourceNotFoundException;
+import com.model.Restaurant;
+import com.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the built menu of each restaurant, keyed by slug, in a public and an employee (with inventory) variant.
+ * <p>
+ * Every cached menu remembers the restaurant it belongs to and when it was loaded. Writers record a change
+ * per restaurant once their transaction has committed, and a cached menu loaded before that change is
+ * treated as a miss. This also covers a slow reader that puts a menu it loaded before a concurrent write.
+ * Inventory-only changes leave the public variant alone, because it does not show inventory.
+ * <p>
+ * The strong ETag of a menu is a hash of its content, computed once when the menu is cached, so every
+ * instance that has loaded the same rows hands out the same tag and a conditional request for a cached
+ * menu is answered without a database round trip. An instance that did not see a change picks it up,
+ * and a new tag with it, when its copy expires from the cache.
+ * <p>
+ * The restaurant listing is not cached, so its ETag is built from the change stamps of this instance and a
+ * random per-instance tag, and also rolls over every {@code menu.catalog-etag.max-age}; that bounds how long
+ * an instance can answer 304 for a listing changed through another instance.
+ */
+@Service
+public class MenuCacheService {
+
+    public static final String PUBLIC_MENUS = "publicMenus";
+    public static final String EMPLOYEE_MENUS = "employeeMenus";
+
+    private final RestaurantRepository restaurantRepository;
+    private final Cache publicMenus;
+    private final Cache employeeMenus;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Long, Long> menuChanges = new ConcurrentHashMap<>();
+    private final Map<Long, Long> inventoryChanges = new ConcurrentHashMap<>();
+    private final AtomicLong lastMenuChange = new AtomicLong();
+    private final AtomicLong lastInventoryChange = new AtomicLong();
+    private final String instanceTag = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private final long catalogETagMaxAgeMillis;
+    private final Clock wallClock;
+
+    @Autowired
+    public MenuCacheService(RestaurantRepository restaurantRepository, CacheManager cacheManager,
+                            @Value("${menu.catalog-etag.max-age:10m}") Duration catalogETagMaxAge) {
+        this(restaurantRepository, cacheManager, catalogETagMaxAge, Clock.systemUTC());
+    }
+
+    MenuCacheService(RestaurantRepository restaurantRepository, CacheManager cacheManager,
+                     Duration catalogETagMaxAge, Clock wallClock) {
+        this.restaurantRepository = restaurantRepository;
+        this.publicMenus = cacheManager.getCache(PUBLIC_MENUS);
+        this.employeeMenus = cacheManager.getCache(EMPLOYEE_MENUS);
+        this.catalogETagMaxAgeMillis = catalogETagMaxAge.toMillis();
+        this.wallClock = wallClock;
+    }
+
+    /**
+     * Returns the menu of a restaurant, loading and caching it on a miss.
+     *
+     * @param slug             The slug of the restaurant.
+     * @param includeInventory Whether to return the employee variant with inventory.
+     */
+    public List<MenuItemDTO> getMenu(String slug, boolean includeInventory) {
+        return getTaggedMenu(slug, includeInventory).items();
+    }
+
+    /**
+     * Returns the strong ETag of a restaurant menu variant, loading and caching the menu on a miss.
+     * A cached menu's tag is answered from memory.
+     */
+    public String getMenuETag(String slug, boolean includeInventory) {
+        return getTaggedMenu(slug, includeInventory).eTag();
+    }
+
+    /**
+     * Returns the menu of a restaurant together with its ETag, both from the same cached copy.
+     */
+    public TaggedMenu getTaggedMenu(String slug, boolean includeInventory) {
+        Cache cache = includeInventory ? employeeMenus : publicMenus;
+
+        CachedMenu cached = cache.get(slug, CachedMenu.class);
+        if (cached != null && isCurrent(cached, includeInventory)) {
+            return cached.menu();
+        }
+
+        long loadedAt = clock.get();
+        Restaurant restaurant = restaurantRepository.findBySlug(slug)
+                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found for slug: " + slug));
+
+        List<MenuItemDTO> items = restaurant.getMenuItems().stream()
+                .map(menuItem -> new MenuItemDTO(menuItem, includeInventory))
+                .toList();
+
+        TaggedMenu menu = new TaggedMenu(contentETag(includeInventory ? "e" : "m", items), items);
+        cache.put(slug, new CachedMenu(restaurant.getId(), loadedAt, menu));
+        return menu;
+    }
+
+    /**
+     * Returns the strong ETag of the restaurant listing, which changes with any menu of any restaurant
+     * changed through this instance, and at least every {@code menu.catalog-etag.max-age}.
+     */
+    public String getCatalogETag(boolean includeInventory) {
+        long period = wallClock.millis() / catalogETagMaxAgeMillis;
+        return includeInventory
+                ? eTag("ce", period, lastMenuChange.get(), lastInventoryChange.get())
+                : eTag("c", period, lastMenuChange.get());
+    }
+
+    /**
+     * Invalidates both menu variants of a restaurant after the current transaction commits.
+     */
+    public void invalidateMenu(Long restaurantId) {
+        afterCommit(() -> {
+            long stamp = clock.incrementAndGet();
+            menuChanges.merge(restaurantId, stamp, Math::max);
+            lastMenuChange.accumulateAndGet(stamp, Math::max);
+        });
+    }
+
+    /**
+     * Invalidates only the employee menu variant of a restaurant after the current transaction commits.
+     */
+    public void invalidateInventory(Long restaurantId) {
+        afterCommit(() -> {
+            long stamp = clock.incrementAndGet();
+            inventoryChanges.merge(restaurantId, stamp, Math::max);
+            lastInventoryChange.accumulateAndGet(stamp, Math::max);
+        });
+    }
+
+    private boolean isCurrent(CachedMenu cached, boolean includeInventory) {
+        if (menuChanges.getOrDefault(cached.restaurantId(), 0L) > cached.loadedAt()) {
+            return false;
+        }
+        return !includeInventory || inventoryChanges.getOrDefault(cached.restaurantId(), 0L) <= cached.loadedAt();
+    }
+
+    /**
+     * Hashes the fields of the menu items that make up the response, so the tag changes exactly when they do.
+     */
+    private static String contentETag(String variant, List<MenuItemDTO> items) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        StringBuilder content = new StringBuilder();
+        for (MenuItemDTO item : items) {
+            content.setLength(0);
+            content.append(item.getId()).append('\u0000')
+                    .append(item.getName()).append('\u0000')
+                    .append(item.getPrice()).append('\u0000')
+                    .append(item.isAvailable()).append('\u0000')
+                    .append(item.getInventory()).append('\u0001');
+            digest.update(content.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] hash = digest.digest();
+        return "\"" + variant + "-" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+    }
+
+    private String eTag(String variant, long... versions) {
+        StringBuilder eTag = new StringBuilder("\"").append(variant).append('-').append(instanceTag);
+        for (long version : versions) {
+            eTag.append('-').append(version);
+        }
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * Runs the change once the data is visible to other readers; invalidating earlier would let a
+     * concurrent reader cache the old rows again.
+     */
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * A menu and the strong ETag of its content.
+     */
+    public record TaggedMenu(String eTag, List<MenuItemDTO> items) {
+    }
+
+    private record CachedMenu(Long restaurantId, long loadedAt, TaggedMenu menu) {
+    }
+}
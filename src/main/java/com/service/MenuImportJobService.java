@@ -0,0 +1,267 @@
+package com.service;
+
+import com.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs menu imports in the background.
+ * <p>
+ * An upload is spooled to a temp file so the request returns right away, then imported by a small, bounded
+ * pool of its own. The pool is not a bean: registering an executor would replace Spring Boot's default
+ * task executor used by async MVC requests. When the pool and its queue are full, new jobs are rejected
+ * instead of piling up. Jobs are kept in memory and dropped {@code menu.import.jobs.retention} after they
+ * finish.
+ */
+@Service
+public class MenuImportJobService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportJobService.class);
+
+    private final MenuImportService menuImportService;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration retention;
+    private final Clock clock;
+    private final Map<String, MenuImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MenuImportJobService(MenuImportService menuImportService,
+                                @Value("${menu.import.jobs.threads:2}") int threads,
+                                @Value("${menu.import.jobs.queue-capacity:10}") int queueCapacity,
+                                @Value("${menu.import.jobs.retention:1h}") Duration retention) {
+        this(menuImportService, createExecutor(threads, queueCapacity), retention, Clock.systemUTC());
+    }
+
+    MenuImportJobService(MenuImportService menuImportService, ThreadPoolTaskExecutor executor,
+                         Duration retention, Clock clock) {
+        this.menuImportService = menuImportService;
+        this.executor = executor;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("menu-import-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Spools the upload to a temp file and queues its import.
+     *
+     * @param file         The uploaded CSV, already validated.
+     * @param restaurantId The restaurant whose menu is updated.
+     * @return The queued job.
+     * @throws TaskRejectedException If too many imports are running or queued.
+     */
+    public MenuImportJob submit(MultipartFile file, Long restaurantId) {
+        pruneFinishedJobs();
+
+        Path spoolFile;
+        try {
+            spoolFile = Files.createTempFile("menu-import-", ".csv");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create a temp file for the import", e);
+        }
+        try {
+            file.transferTo(spoolFile);
+        } catch (IOException e) {
+            deleteSpoolFile(spoolFile);
+            throw new IllegalArgumentException("Failed to read the uploaded file: " + e.getMessage());
+        }
+
+        MenuImportJob job = new MenuImportJob(UUID.randomUUID().toString(), restaurantId, clock);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, spoolFile));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            deleteSpoolFile(spoolFile);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Returns a job of the given restaurant. Jobs of other restaurants are reported as not found.
+     */
+    public MenuImportJob getJob(String jobId, Long restaurantId) {
+        MenuImportJob job = jobs.get(jobId);
+        if (job == null || !job.getRestaurantId().equals(restaurantId)) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(MenuImportJob job, Path spoolFile) {
+        job.start(clock.instant());
+        try (Reader reader = Files.newBufferedReader(spoolFile, StandardCharsets.UTF_8)) {
+            job.complete(menuImportService.importMenu(reader, job.getRestaurantId(), job::progress), clock.instant());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Menu import job {} for restaurant {} failed", job.getId(), job.getRestaurantId(), e);
+            job.fail(e.getMessage(), clock.instant());
+        } finally {
+            deleteSpoolFile(spoolFile);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        Instant cutoff = clock.instant().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static void deleteSpoolFile(Path spoolFile) {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete menu import spool file {}", spoolFile, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * The progress of one background import. Updated by the import thread and read by status requests.
+     */
+    public static final class MenuImportJob {
+
+        private final String id;
+        private final Long restaurantId;
+        private final Clock clock;
+        private final Instant createdAt;
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile int rowsProcessed;
+        private volatile int rowsFailed;
+        private volatile MenuImportService.MenuImportResult result;
+        private volatile String error;
+
+        MenuImportJob(String id, Long restaurantId, Clock clock) {
+            this.id = id;
+            this.restaurantId = restaurantId;
+            this.clock = clock;
+            this.createdAt = clock.instant();
+        }
+
+        private void start(Instant now) {
+            startedAt = now;
+            status = JobStatus.RUNNING;
+        }
+
+        private void progress(int rows, int failed) {
+            rowsProcessed = rows;
+            rowsFailed = failed;
+        }
+
+        private void complete(MenuImportService.MenuImportResult result, Instant now) {
+            this.result = result;
+            progress(result.rows(), result.failed());
+            finishedAt = now;
+            status = JobStatus.COMPLETED;
+        }
+
+        private void fail(String error, Instant now) {
+            this.error = error;
+            finishedAt = now;
+            status = JobStatus.FAILED;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Long getRestaurantId() {
+            return restaurantId;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public JobStatus getStatus() {
+            return status;
+        }
+
+        public Instant getStartedAt() {
+            return startedAt;
+        }
+
+        public Instant getFinishedAt() {
+            return finishedAt;
+        }
+
+        public int getRowsProcessed() {
+            return rowsProcessed;
+        }
+
+        public int getRowsFailed() {
+            return rowsFailed;
+        }
+
+        /**
+         * The import summary, once the job has completed.
+         */
+        public MenuImportService.MenuImportResult getResult() {
+            return result;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Rows processed per second since the job started, up to now or until it finished.
+         */
+        public double getRowsPerSecond() {
+            Instant start = startedAt;
+            if (start == null) {
+                return 0;
+            }
+            Instant end = finishedAt != null ? finishedAt : clock.instant();
+            long millis = Math.max(Duration.between(start, end).toMillis(), 1);
+            return rowsProcessed * 1000.0 / millis;
+        }
+
+        /**
+         * The errors reported so far; row errors are only known once the job has completed.
+         */
+        public List<String> getErrors() {
+            if (result != null) {
+                return result.errors();
+            }
+            return error != null ? List.of(error) : List.of();
+        }
+    }
+}
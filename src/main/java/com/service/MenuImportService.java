@@ -0,0 +1,438 @@
+package com.service;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Imports a restaurant menu from CSV in chunks.
+ * <p>
+ * The file is parsed as a stream, so only one chunk of rows is held in memory. Each chunk is written with
+ * two JDBC batches (updates of existing items of the restaurant, then inserts of new ones) and committed
+ * on its own, so a large import holds no long transaction and a failing chunk does not undo earlier ones.
+ * A chunk the database rejects is retried row by row to report exactly which rows failed.
+ * <p>
+ * Rows are diffed against the restaurant's current items before writing: a row is matched by ID, or else
+ * by normalized name, and only written when its content hash or availability differs. Re-uploading an
+ * unchanged menu therefore writes nothing and leaves the menu cache alone.
+ */
+@Service
+public class MenuImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportService.class);
+
+    static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int ID_BLOCK_SIZE = 50; // Increment of menu_item_seq, shared with the entity's pooled generator
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreSurroundingSpaces(true)
+            .build();
+
+    private static final String SELECT_CURRENT_SQL =
+            "SELECT id, name, description, price, ingredients, inventory, is_available FROM menu_item "
+                    + "WHERE restaurant_id = ? ORDER BY id";
+    private static final String UPDATE_SQL =
+            "UPDATE menu_item SET name = ?, description = ?, price = ?, ingredients = ?, inventory = ?, is_available = ? "
+                    + "WHERE id = ? AND restaurant_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO menu_item (id, name, description, price, ingredients, inventory, is_available, restaurant_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT nextval('menu_item_seq')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MenuCacheService menuCacheService;
+    private final int chunkSize;
+
+    public MenuImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MenuCacheService menuCacheService,
+                             @Value("${menu.import.chunk-size:1000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("menu.import.chunk-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.menuCacheService = menuCacheService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the menu rows read from a CSV with a header line. Known columns are id, name, description,
+     * price, inventory, ingredients and available. A row with the ID or the name of an item of this
+     * restaurant updates that item if anything changed; any other row adds a new item. Without an available
+     * column, existing items keep their availability and new ones are available.
+     *
+     * @param reader       The CSV source; read once, front to back.
+     * @param restaurantId The restaurant whose menu is updated.
+     */
+    public MenuImportResult importMenu(Reader reader, Long restaurantId) {
+        return importMenu(reader, restaurantId, (rows, failed) -> { });
+    }
+
+    /**
+     * Imports the menu rows like {@link #importMenu(Reader, Long)}, reporting the running totals to
+     * {@code listener} after every committed chunk.
+     */
+    public MenuImportResult importMenu(Reader reader, Long restaurantId, ProgressListener listener) {
+        ImportRun run = new ImportRun(restaurantId);
+        try (CSVParser parser = FORMAT.parse(reader)) {
+            loadCurrentItems(run);
+            List<MenuRow> chunk = new ArrayList<>(Math.min(chunkSize, 10_000));
+            for (CSVRecord record : parser) {
+                run.rows++;
+                MenuRow row;
+                try {
+                    row = diff(run, parseRow(record));
+                } catch (IllegalArgumentException e) {
+                    run.fail("Row " + record.getRecordNumber() + ": " + e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(run, chunk);
+                    listener.onProgress(run.rows, run.failed);
+                    chunk = new ArrayList<>(chunk.size());
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(run, chunk);
+            }
+            listener.onProgress(run.rows, run.failed);
+        } catch (IOException | UncheckedIOException e) {
+            run.fail("Failed to process the file: " + e.getMessage());
+        } finally {
+            if (run.inserted + run.updated > 0) {
+                menuCacheService.invalidateMenu(restaurantId);
+            }
+        }
+
+        logger.info("Menu import for restaurant {}: {} rows, {} inserted, {} updated, {} unchanged, {} failed",
+                restaurantId, run.rows, run.inserted, run.updated, run.unchanged, run.failed);
+        return run.result();
+    }
+
+    private static MenuRow parseRow(CSVRecord record) {
+        String name = value(record, "name");
+        if (name == null) {
+            throw new IllegalArgumentException("Missing or empty 'name' field.");
+        }
+        String description = value(record, "description");
+        String ingredients = value(record, "ingredients");
+        checkLength("name", name);
+        checkLength("description", description);
+        checkLength("ingredients", ingredients);
+
+        String idValue = value(record, "id");
+        String priceValue = value(record, "price");
+        String inventoryValue = value(record, "inventory");
+        String availableValue = value(record, "available");
+
+        double price = priceValue != null ? parseNumber("price", priceValue, Double::parseDouble) : 0.0;
+        if (!(price > 0)) {
+            throw new IllegalArgumentException("Menu item price must be greater than 0.");
+        }
+        int inventory = inventoryValue != null ? parseNumber("inventory", inventoryValue, Integer::parseInt) : 0;
+        if (inventory < 0) {
+            throw new IllegalArgumentException("Inventory cannot be negative.");
+        }
+
+        return new MenuRow(
+                record.getRecordNumber(),
+                idValue != null ? parseNumber("id", idValue, Long::parseLong) : null,
+                name,
+                description != null ? description : "No description provided",
+                price,
+                ingredients,
+                inventory,
+                availableValue != null ? parseBoolean(availableValue) : null);
+    }
+
+    private static boolean parseBoolean(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid available: " + value);
+        };
+    }
+
+    private static String value(CSVRecord record, String column) {
+        if (!record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void checkLength(String column, String value) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("'" + column + "' exceeds " + MAX_TEXT_LENGTH + " characters.");
+        }
+    }
+
+    private static <N> N parseNumber(String column, String value, Function<String, N> parser) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Loads the ID, normalized name, content hash and availability of every current item of the restaurant.
+     */
+    private void loadCurrentItems(ImportRun run) {
+        jdbcTemplate.query(SELECT_CURRENT_SQL, rs -> {
+            BigDecimal price = rs.getBigDecimal(4);
+            CurrentItem item = new CurrentItem(
+                    rs.getLong(1),
+                    contentHash(rs.getString(2), rs.getString(3), price != null ? price.doubleValue() : 0.0,
+                            rs.getString(5), rs.getInt(6)),
+                    rs.getBoolean(7));
+            run.currentById.put(item.id(), item);
+            run.currentByName.putIfAbsent(normalizeName(rs.getString(2)), item); // Duplicates only match by ID
+        }, run.restaurantId);
+    }
+
+    /**
+     * Matches a row to a current item of the restaurant and decides what, if anything, to write.
+     *
+     * @return The row to write, carrying the ID of the item to update or no ID to insert it; null if the
+     * matched item is unchanged.
+     */
+    private static MenuRow diff(ImportRun run, MenuRow row) {
+        String name = normalizeName(row.name());
+        CurrentItem current = row.id() != null ? run.currentById.get(row.id()) : null;
+        if (current == null) {
+            current = run.currentByName.get(name);
+        }
+
+        if (current == null) {
+            Long firstRow = run.newNames.putIfAbsent(name, row.recordNumber());
+            if (firstRow != null) {
+                throw new IllegalArgumentException("Duplicate of row " + firstRow + ".");
+            }
+            return row.withTarget(null, row.available() != null ? row.available() : true);
+        }
+
+        Long firstRow = run.matchedRows.putIfAbsent(current.id(), row.recordNumber());
+        if (firstRow != null) {
+            throw new IllegalArgumentException("Duplicate of row " + firstRow + ".");
+        }
+        boolean available = row.available() != null ? row.available() : current.available();
+        if (available == current.available()
+                && current.hash() == contentHash(row.name(), row.description(), row.price(), row.ingredients(),
+                row.inventory())) {
+            run.unchanged++;
+            return null;
+        }
+        return row.withTarget(current.id(), available);
+    }
+
+    /**
+     * Lower-cases a name and collapses its whitespace, so "Pizza  Margherita " matches "pizza margherita".
+     */
+    static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * A 64-bit FNV-1a hash of the imported columns of an item. Prices are compared at the two decimals the
+     * database stores.
+     */
+    static long contentHash(String name, String description, double price, String ingredients, int inventory) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashField(hash, name);
+        hash = hashField(hash, description);
+        hash = hashField(hash, BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        hash = hashField(hash, ingredients);
+        return hashField(hash, Integer.toString(inventory));
+    }
+
+    private static long hashField(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // The separator keeps ("ab", "c") apart from ("a", "bc"); null and "" hash alike
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+
+    /**
+     * Writes one chunk in its own transaction, falling back to one transaction per row if the chunk fails.
+     */
+    private void writeChunk(ImportRun run, List<MenuRow> chunk) {
+        try {
+            int[] counts = transactionTemplate.execute(status -> write(run, chunk));
+            run.inserted += counts[0];
+            run.updated += counts[1];
+        } catch (DataAccessException e) {
+            if (chunk.size() == 1) {
+                run.fail("Row " + chunk.get(0).recordNumber() + ": " + e.getMostSpecificCause().getMessage());
+                return;
+            }
+            logger.warn("Menu import chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            for (MenuRow row : chunk) {
+                writeChunk(run, List.of(row));
+            }
+        }
+    }
+
+    /**
+     * Updates the rows matched to an item of the restaurant and inserts the rest.
+     *
+     * @return The number of inserted and updated rows.
+     */
+    private int[] write(ImportRun run, List<MenuRow> rows) {
+        List<MenuRow> inserts = new ArrayList<>();
+        List<MenuRow> updates = new ArrayList<>();
+        for (MenuRow row : rows) {
+            (row.id() != null ? updates : inserts).add(row);
+        }
+
+        int updated = 0;
+        if (!updates.isEmpty()) {
+            List<Object[]> updateArgs = new ArrayList<>(updates.size());
+            for (MenuRow row : updates) {
+                updateArgs.add(new Object[]{row.name(), row.description(), row.price(), row.ingredients(),
+                        row.inventory(), row.available(), row.id(), run.restaurantId});
+            }
+            int[] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SQL, updateArgs);
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    inserts.add(updates.get(i)); // The item was deleted since the import started: add it again
+                } else {
+                    updated++;
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            List<Object[]> insertArgs = new ArrayList<>(inserts.size());
+            for (MenuRow row : inserts) {
+                insertArgs.add(new Object[]{run.nextId(), row.name(), row.description(), row.price(),
+                        row.ingredients(), row.inventory(), row.available(), run.restaurantId});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, insertArgs);
+        }
+        return new int[]{inserts.size(), updated};
+    }
+
+    /**
+     * Receives the number of rows read and rejected so far while an import runs.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        void onProgress(int rows, int failed);
+    }
+
+    /**
+     * The outcome of an import. Errors are capped at {@value #MAX_REPORTED_ERRORS} messages; {@code failed}
+     * counts all rejected rows, including rows that repeat an earlier row's item.
+     */
+    public record MenuImportResult(int rows, int inserted, int updated, int unchanged, int failed,
+                                   List<String> errors) {
+    }
+
+    /**
+     * A parsed row. Before writing, {@code id} is the item to update (null to insert) and {@code available}
+     * is resolved.
+     */
+    private record MenuRow(long recordNumber, Long id, String name, String description, double price,
+                           String ingredients, int inventory, Boolean available) {
+
+        private MenuRow withTarget(Long id, boolean available) {
+            return new MenuRow(recordNumber, id, name, description, price, ingredients, inventory, available);
+        }
+    }
+
+    private record CurrentItem(long id, long hash, boolean available) {
+    }
+
+    /**
+     * Counters, current items and ID allocation of one import.
+     */
+    private final class ImportRun {
+
+        private final Long restaurantId;
+        private final List<String> errors = new ArrayList<>();
+        private final Map<Long, CurrentItem> currentById = new HashMap<>();
+        private final Map<String, CurrentItem> currentByName = new HashMap<>();
+        private final Map<Long, Long> matchedRows = new HashMap<>(); // Item ID -> record number of its row
+        private final Map<String, Long> newNames = new HashMap<>(); // Normalized name -> record number
+        private int rows;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int failed;
+        private long nextId = 1;
+        private long lastId = 0;
+
+        private ImportRun(Long restaurantId) {
+            this.restaurantId = restaurantId;
+        }
+
+        /**
+         * Hands out IDs from blocks of the menu item sequence, the same way the entity's pooled generator does,
+         * so new rows can be inserted in one batch with explicit IDs.
+         */
+        private long nextId() {
+            if (nextId > lastId) {
+                Long blockEnd = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+                lastId = blockEnd;
+                nextId = blockEnd - ID_BLOCK_SIZE + 1;
+            }
+            return nextId++;
+        }
+
+        private void fail(String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+
+        private MenuImportResult result() {
+            return new MenuImportResult(rows, inserted, updated, unchanged, failed, List.copyOf(errors));
+        }
+    }
+}
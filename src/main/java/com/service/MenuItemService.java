@@ -3,18 +3,24 @@ package com.service;
 import com.dto.InventoryUpdateRequestDTO;
 import com.exception.ResourceNotFoundException;
 import com.exception.ValidationException;
-import com.model.AppUser;
 import com.model.MenuItem;
-import com.repository.AppUserRepository;
 import com.repository.MenuItemRepository;
+import com.security.AuthenticatedUser;
 import com.utils.AuthUtils;
-import com.utils.CsvUtils;
 import com.utils.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.transaction.Transactional;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,12 +28,23 @@ import java.util.Map;
 public class MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
-    private final AppUserRepository appUserRepository;
+    private final UserService userService;
+    private final MenuCacheService menuCacheService;
+    private final MenuImportService menuImportService;
+    private final MenuImportJobService menuImportJobService;
+    private final DataSize maxUploadSize;
 
     @Autowired
-    public MenuItemService(MenuItemRepository menuItemRepository, AppUserRepository appUserRepository) {
+    public MenuItemService(MenuItemRepository menuItemRepository, UserService userService,
+                           MenuCacheService menuCacheService, MenuImportService menuImportService,
+                           MenuImportJobService menuImportJobService,
+                           @Value("${menu.import.max-file-size:50MB}") DataSize maxUploadSize) {
         this.menuItemRepository = menuItemRepository;
-        this.appUserRepository = appUserRepository;
+        this.userService = userService;
+        this.menuCacheService = menuCacheService;
+        this.menuImportService = menuImportService;
+        this.menuImportJobService = menuImportJobService;
+        this.maxUploadSize = maxUploadSize;
     }
 
     /**
@@ -55,7 +72,9 @@ public class MenuItemService {
             throw new ValidationException("Menu item must be associated with a restaurant.");
         }
 
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuCacheService.invalidateMenu(menuItem.getRestaurant().getId());
+        return saved;
     }
 
     /**
@@ -76,6 +95,7 @@ public class MenuItemService {
 
         menuItem.setInventory(inventoryUpdate.getQuantity());
         menuItemRepository.save(menuItem);
+        menuCacheService.invalidateInventory(menuItem.getRestaurant().getId());
     }
 
     /**
@@ -94,36 +114,46 @@ public class MenuItemService {
         menuItem.setIngredients(menuItemDetails.getIngredients());
         menuItem.setInventory(menuItemDetails.getInventory());
 
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        menuCacheService.invalidateMenu(menuItem.getRestaurant().getId());
+        return saved;
     }
 
     /**
      * Delete a menu item by ID.
      */
     public void deleteMenuItem(Long id) {
-        if (!menuItemRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Menu item not found with ID: " + id);
-        }
-        menuItemRepository.deleteById(id);
+        MenuItem menuItem = menuItemRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with ID: " + id));
+        menuItemRepository.delete(menuItem);
+        menuCacheService.invalidateMenu(menuItem.getRestaurant().getId());
     }
 
-    @Transactional
-    public List<String> processCsvFile(MultipartFile file, Long restaurantId) {
-        return CsvUtils.processMenuCsvFile(file, restaurantId, this);
+    /**
+     * Imports an uploaded menu CSV for a restaurant. Runs outside a transaction: the import commits per chunk.
+     */
+    public MenuImportService.MenuImportResult processCsvFile(MultipartFile file, Long restaurantId) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            return menuImportService.importMenu(reader, restaurantId);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read the uploaded file: " + e.getMessage());
+        }
     }
 
     /**
      * Get the restaurant ID for a user by username.
      */
     public Long getRestaurantIdForUser(String username) {
-        AppUser user = appUserRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        AuthenticatedUser authenticatedUser = AuthUtils.getAuthenticatedUser(username);
+        Long restaurantId = authenticatedUser != null
+                ? authenticatedUser.getRestaurantId()
+                : userService.getUserSnapshot(username).restaurantId();
 
-        if (user.getRestaurant() == null) {
+        if (restaurantId == null) {
             throw new ValidationException("No restaurant is associated with the user: " + username);
         }
 
-        return user.getRestaurant().getId();
+        return restaurantId;
     }
 
     @Transactional
@@ -136,20 +166,67 @@ public class MenuItemService {
         );
     }
 
-    @Transactional
     public Map<String, Object> handleCsvUpload(MultipartFile file) {
-        FileUtils.validateCsvFile(file);
+        FileUtils.validateCsvFile(file, maxUploadSize);
         String username = AuthUtils.getLoggedInUsername();
         Long restaurantId = getRestaurantIdForUser(username);
-        List<String> errorMessages = processCsvFile(file, restaurantId);
+        MenuImportService.MenuImportResult result = processCsvFile(file, restaurantId);
 
-        if (!errorMessages.isEmpty()) {
+        if (result.failed() > 0) {
             return Map.of(
                     "message", "Menu update partially successful. Some records failed.",
-                    "errors", errorMessages
+                    "inserted", result.inserted(),
+                    "updated", result.updated(),
+                    "unchanged", result.unchanged(),
+                    "failed", result.failed(),
+                    "errors", result.errors()
             );
         }
-        return Map.of("message", "Menu updated successfully!");
+        return Map.of(
+                "message", "Menu updated successfully!",
+                "inserted", result.inserted(),
+                "updated", result.updated(),
+                "unchanged", result.unchanged()
+        );
+    }
+
+    /**
+     * Queues the import of an uploaded menu CSV for the logged-in user's restaurant and returns the job to poll.
+     */
+    public Map<String, Object> startCsvImportJob(MultipartFile file) {
+        FileUtils.validateCsvFile(file, maxUploadSize);
+        Long restaurantId = getRestaurantIdForUser(AuthUtils.getLoggedInUsername());
+        MenuImportJobService.MenuImportJob job = menuImportJobService.submit(file, restaurantId);
+        return Map.of(
+                "message", "Menu import queued.",
+                "jobId", job.getId(),
+                "status", job.getStatus()
+        );
+    }
+
+    /**
+     * Returns the progress of a menu import job of the logged-in user's restaurant.
+     */
+    public Map<String, Object> getCsvImportJobStatus(String jobId) {
+        Long restaurantId = getRestaurantIdForUser(AuthUtils.getLoggedInUsername());
+        MenuImportJobService.MenuImportJob job = menuImportJobService.getJob(jobId, restaurantId);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", job.getId());
+        status.put("status", job.getStatus());
+        status.put("rowsProcessed", job.getRowsProcessed());
+        status.put("rowsFailed", job.getRowsFailed());
+        status.put("rowsPerSecond", Math.round(job.getRowsPerSecond() * 10) / 10.0);
+        status.put("createdAt", job.getCreatedAt());
+        status.put("startedAt", job.getStartedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        if (job.getResult() != null) {
+            status.put("inserted", job.getResult().inserted());
+            status.put("updated", job.getResult().updated());
+            status.put("unchanged", job.getResult().unchanged());
+        }
+        status.put("errors", job.getErrors());
+        return status;
     }
 
     /**
@@ -0,0 +1,181 @@
+package com.service;
+
+import com.model.OrderStatus;
+import com.utils.CsvUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the orders of a restaurant as CSV straight from a forward-only JDBC cursor.
+ * <p>
+ * Orders and their items come from one query, ordered by order ID, so each CSV line is written as soon as
+ * the next order starts. Memory use does not grow with the number of orders: rows are fetched
+ * {@code orders.export.fetch-size} at a time and only the items of the current order are held.
+ */
+@Service
+public class OrderExportService {
+
+    static final String HEADER = "Order Number,Total Price,Status,Customer,Items,Created At\n";
+
+    private static final String SELECT_SQL = """
+            SELECT o.id, o.order_number, o.total_price, o.status, o.created_at, u.full_name, mi.name, oi.quantity
+            FROM customer_order o
+            JOIN app_users u ON u.id = o.user_id
+            LEFT JOIN order_items oi ON oi.customer_order_id = o.id
+            LEFT JOIN menu_item mi ON mi.id = oi.menu_item_id
+            WHERE o.restaurant_id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OrderExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${orders.export.fetch-size:500}") int fetchSize) {
+        this(createJdbcTemplate(dataSource, fetchSize), transactionManager);
+    }
+
+    OrderExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // PostgreSQL only honours the fetch size (a server-side cursor) inside a transaction
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    private static JdbcTemplate createJdbcTemplate(DataSource dataSource, int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        return jdbcTemplate;
+    }
+
+    /**
+     * Returns a body that writes the matching orders of a restaurant as CSV when the response is sent.
+     *
+     * @param restaurantId The restaurant whose orders are exported.
+     * @param from         Only orders placed at or after this moment (optional).
+     * @param to           Only orders placed before this moment (optional).
+     * @param statuses     Only orders with one of these statuses (optional, empty means all).
+     * @param gzip         Whether to gzip the output.
+     */
+    public StreamingResponseBody exportOrders(Long restaurantId, LocalDateTime from, LocalDateTime to,
+                                              List<OrderStatus> statuses, boolean gzip) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(restaurantId);
+        if (from != null) {
+            sql.append(" AND o.created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND o.status IN (").append("?,".repeat(statuses.size() - 1)).append("?)");
+            statuses.forEach(status -> args.add(status.name()));
+        }
+        sql.append(" ORDER BY o.id, oi.id");
+
+        return outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            writer.write(HEADER);
+            try {
+                CsvRowHandler handler = new CsvRowHandler(writer);
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.query(sql.toString(), handler, args.toArray()));
+                handler.finish();
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // The client went away while streaming
+            }
+            writer.flush();
+            if (gzip) {
+                ((GZIPOutputStream) out).finish();
+            }
+        };
+    }
+
+    /**
+     * Collects the items of the current order and writes its line once the next order (or the end) is reached.
+     */
+    static final class CsvRowHandler implements RowCallbackHandler {
+
+        private final Writer writer;
+        private final StringBuilder items = new StringBuilder();
+        private long orderId = -1;
+        private String orderLine; // Everything before the items column of the current order
+        private String createdAt;
+
+        CsvRowHandler(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong(1);
+            if (id != orderId) {
+                finish();
+                orderId = id;
+                BigDecimal totalPrice = rs.getBigDecimal(3);
+                orderLine = rs.getString(2) + ','
+                        + (totalPrice != null ? totalPrice.setScale(2, RoundingMode.HALF_UP).toPlainString() : "") + ','
+                        + rs.getString(4) + ','
+                        + CsvUtils.escapeCsv(rs.getString(6)) + ',';
+                Timestamp timestamp = rs.getTimestamp(5);
+                createdAt = timestamp != null ? timestamp.toLocalDateTime().toString() : "";
+            }
+
+            String itemName = rs.getString(7);
+            if (itemName != null) {
+                if (!items.isEmpty()) {
+                    items.append("; ");
+                }
+                items.append(itemName).append(" x").append(rs.getInt(8));
+            }
+        }
+
+        /**
+         * Writes the line of the order collected so far, if any.
+         */
+        void finish() {
+            if (orderLine == null) {
+                return;
+            }
+            try {
+                writer.write(orderLine);
+                writer.write(CsvUtils.escapeCsv(items.isEmpty() ? "No items" : items.toString()));
+                writer.write(',');
+                writer.write(createdAt);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            items.setLength(0);
+            orderLine = null;
+        }
+    }
+}
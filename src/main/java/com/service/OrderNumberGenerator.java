@@ -0,0 +1,12 @@
+package com.service;
+
+/**
+ * Produces the human-readable order numbers assigned to newly placed orders.
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * Returns a new order number that has never been handed out before.
+     */
+    String nextOrderNumber();
+}
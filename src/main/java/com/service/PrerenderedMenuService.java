@@ -0,0 +1,122 @@
+package com.service;
+
+import com.dto.MenuItemDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.response.ApiResponse;
+import com.utils.ResponseUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the public (non-inventory) menu of a restaurant as JSON that was serialized once per menu content.
+ * The bytes, and optionally a gzip copy, are kept in the "publicMenuJson" cache and written out as-is,
+ * so a request for an unchanged menu costs no Jackson work and no per-request buffers.
+ */
+@Service
+public class PrerenderedMenuService {
+
+    public static final String PUBLIC_MENU_JSON = "publicMenuJson";
+
+    private final MenuCacheService menuCacheService;
+    private final ObjectMapper objectMapper;
+    private final Cache renderedMenus;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+
+    public PrerenderedMenuService(MenuCacheService menuCacheService,
+                                  ObjectMapper objectMapper,
+                                  CacheManager cacheManager,
+                                  @Value("${menu.prerendered-json.enabled:true}") boolean enabled,
+                                  @Value("${menu.prerendered-json.gzip:true}") boolean gzipEnabled) {
+        this.menuCacheService = menuCacheService;
+        this.objectMapper = objectMapper;
+        this.renderedMenus = cacheManager.getCache(PUBLIC_MENU_JSON);
+        this.enabled = enabled;
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Builds the response for a public menu request, answering 304 when the client's copy is current.
+     * The gzip copy is sent when the client accepts it; it has its own ETag because its bytes differ.
+     */
+    public ResponseEntity<byte[]> getPublicMenuResponse(String slug, WebRequest request) {
+        boolean gzip = gzipEnabled && ResponseUtils.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        String currentETag = menuCacheService.getMenuETag(slug, false);
+        if (request.checkNotModified(gzip ? gzipETag(currentETag) : currentETag)) {
+            // checkNotModified has already written the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        RenderedMenu menu = getRenderedMenu(slug);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.eTag(menu.gzipETag()).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(menu.gzip());
+        }
+        return response.eTag(menu.eTag()).body(menu.json());
+    }
+
+    /**
+     * Returns the rendered public menu, serializing it again only when the menu content has changed.
+     */
+    RenderedMenu getRenderedMenu(String slug) {
+        // The tag and the items come from the same cached copy, so the bytes always match the ETag stored with them.
+        MenuCacheService.TaggedMenu menu = menuCacheService.getTaggedMenu(slug, false);
+        RenderedMenu cached = renderedMenus.get(slug, RenderedMenu.class);
+        if (cached != null && cached.eTag().equals(menu.eTag())) {
+            return cached;
+        }
+
+        byte[] json = render(menu.items());
+        RenderedMenu rendered = new RenderedMenu(menu.eTag(), json, gzipETag(menu.eTag()), gzipEnabled ? gzip(json) : null);
+        renderedMenus.put(slug, rendered);
+        return rendered;
+    }
+
+    private byte[] render(List<MenuItemDTO> items) {
+        try {
+            return objectMapper.writeValueAsBytes(ApiResponse.success(items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize menu", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-gz\"";
+    }
+
+    record RenderedMenu(String eTag, byte[] json, String gzipETag, byte[] gzip) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.repository.AppUserRepository;
+import com.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Answers which restaurant a slug belongs to and whether a user works there, from memory.
+ * <p>
+ * Slugs never change, so the restaurant ID of a slug is kept until evicted for size. The employees of a
+ * restaurant are loaded as a set of usernames with one query, without loading the users, and kept for
+ * {@code restaurant.membership-index.expire-after-write} (default 30 seconds). Nothing in the application
+ * assigns employees, so changes made in the database are only picked up when that expires: an employee who is
+ * removed from a restaurant keeps write access to it for up to that long.
+ */
+@Service
+public class RestaurantMembershipIndex {
+
+    private static final int MAXIMUM_SIZE = 10_000;
+
+    private final RestaurantRepository restaurantRepository;
+    private final AppUserRepository appUserRepository;
+    private final Cache<String, Long> restaurantIdsBySlug;
+    private final Cache<Long, Set<String>> employeesByRestaurantId;
+
+    public RestaurantMembershipIndex(RestaurantRepository restaurantRepository,
+                                     AppUserRepository appUserRepository,
+                                     @Value("${restaurant.membership-index.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.restaurantRepository = restaurantRepository;
+        this.appUserRepository = appUserRepository;
+        this.restaurantIdsBySlug = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .build();
+        this.employeesByRestaurantId = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Returns the ID of the restaurant with a slug, or null if there is none. Unknown slugs are not cached.
+     */
+    public Long findRestaurantId(String slug) {
+        return restaurantIdsBySlug.get(slug, key -> restaurantRepository.findIdBySlug(key).orElse(null));
+    }
+
+    /**
+     * Checks whether a user is an employee of a restaurant.
+     */
+    public boolean isEmployee(Long restaurantId, String username) {
+        return employeesByRestaurantId
+                .get(restaurantId, id -> Set.copyOf(appUserRepository.findUsernamesByRestaurantId(id)))
+                .contains(username);
+    }
+
+    /**
+     * Returns the ID of the restaurant with a slug if the user is one of its employees, or null otherwise.
+     */
+    public Long findRestaurantIdForEmployee(String username, String slug) {
+        Long restaurantId = findRestaurantId(slug);
+        return restaurantId != null && isEmployee(restaurantId, username) ? restaurantId : null;
+    }}
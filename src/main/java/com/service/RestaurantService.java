@@ -1,69 +1,117 @@
 package com.service;
 
+import com.dto.CursorPage;
 import com.dto.CustomerOrderDTO;
-import com.dto.OrderDTO;
 import com.dto.RestaurantDTO;
+import com.event.OrderStatusChangedEvent;
 import com.exception.ResourceNotFoundException;
 import com.exception.ValidationException;
 import com.model.MenuItem;
 import com.model.CustomerOrder;
 import com.model.OrderStatus;
 import com.model.Restaurant;
-import com.repository.AppUserRepository;
 import com.repository.MenuItemRepository;
 import com.repository.CustomerOrderRepository;
 import com.repository.RestaurantRepository;
+import com.security.AuthenticatedUser;
+import com.utils.AuthUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import com.utils.CsvUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.utils.CursorUtils;
+import com.utils.ResponseUtils;
+import com.utils.ValidationUtils;
 
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class RestaurantService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final CustomerOrderRepository customerOrderRepository;
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
-    private final AppUserRepository appUserRepository;
+    private final UserService userService;
+    private final MenuCacheService menuCacheService;
+    private final OrderExportService orderExportService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RestaurantMembershipIndex membershipIndex;
 
     public RestaurantService(CustomerOrderRepository customerOrderRepository,
                              RestaurantRepository restaurantRepository,
                              MenuItemRepository menuItemRepository,
-                             AppUserRepository appUserRepository) {
+                             UserService userService,
+                             MenuCacheService menuCacheService,
+                             OrderExportService orderExportService,
+                             ApplicationEventPublisher eventPublisher,
+                             RestaurantMembershipIndex membershipIndex) {
         this.customerOrderRepository = customerOrderRepository;
         this.restaurantRepository = restaurantRepository;
         this.menuItemRepository = menuItemRepository;
-        this.appUserRepository = appUserRepository;
+        this.userService = userService;
+        this.menuCacheService = menuCacheService;
+        this.orderExportService = orderExportService;
+        this.eventPublisher = eventPublisher;
+        this.membershipIndex = membershipIndex;
     }
 
     /**
-     * Get all restaurants with menu items (excluding inventory).
+     * Get one page of restaurants with their available menu items (excluding inventory).
+     * Loads the restaurants and then all of their menu items with one query each.
+     *
+     * @param name Optional case-insensitive filter on the restaurant name.
+     * @param page Zero-based page number.
+     * @param size Page size, capped at {@link #MAX_PAGE_SIZE}.
      */
     @Transactional(readOnly = true)
-    public List<RestaurantDTO> getAllRestaurantsWithMenu() {
-        return restaurantRepository.findAll().stream()
-                .map(restaurant -> {
-                    List<MenuItem> menuItems = menuItemRepository.findByRestaurant_IdAndIsAvailable(restaurant.getId(), true);
-                    return new RestaurantDTO(restaurant, menuItems, false); // Exclude inventory
-                })
-                .collect(Collectors.toList());
+    public List<RestaurantDTO> getAllRestaurantsWithMenu(String name, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("id"));
+        List<Restaurant> restaurants = (name == null || name.isBlank())
+                ? restaurantRepository.findAllBy(pageable)
+                : restaurantRepository.findByNameContainingIgnoreCase(name.trim(), pageable);
+        if (restaurants.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<MenuItem>> menuItemsByRestaurant = menuItemRepository
+                .findByRestaurant_IdInAndIsAvailableOrderByIdAsc(restaurants.stream().map(Restaurant::getId).toList(), true)
+                .stream()
+                .collect(Collectors.groupingBy(menuItem -> menuItem.getRestaurant().getId()));
+
+        return restaurants.stream()
+                .map(restaurant -> new RestaurantDTO(restaurant, menuItemsByRestaurant.get(restaurant.getId()), false)) // Exclude inventory
+                .toList();
     }
 
     /**
      * Check if an employee is authorized for a restaurant.
      */
-    @Transactional(readOnly = true)
     public boolean isEmployeeAuthorizedForRestaurant(String username, String restaurantSlug) {
-        return restaurantRepository.findBySlugWithEmployees(restaurantSlug)
-                .map(restaurant -> restaurant.getEmployees().stream()
-                        .anyMatch(employee -> employee.getUsername().equals(username)))
-                .orElse(false);
+        return membershipIndex.findRestaurantIdForEmployee(username, restaurantSlug) != null;
+    }
+
+    /**
+     * Returns the ID of the restaurant with a slug, if the user is one of its employees.
+     *
+     * @throws ValidationException if the restaurant does not exist or the user does not work there.
+     */
+    private Long getAuthorizedRestaurantId(String username, String slug) {
+        Long restaurantId = membershipIndex.findRestaurantIdForEmployee(username, slug);
+        if (restaurantId == null) {
+            throw new ValidationException("Unauthorized access to restaurant: " + slug);
+        }
+        return restaurantId;
     }
 
     @Transactional(readOnly = true)
@@ -76,24 +124,21 @@ public class RestaurantService {
     }
 
     private Long getAuthenticatedRestaurantId(String username) {
-        return appUserRepository.findByUsername(username)
-                .map(user -> user.getRestaurant() != null ? user.getRestaurant().getId() : null)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
+        AuthenticatedUser authenticatedUser = AuthUtils.getAuthenticatedUser(username);
+        if (authenticatedUser != null) {
+            return authenticatedUser.getRestaurantId();
+        }
+        return userService.getUserSnapshot(username).restaurantId();
     }
 
     @Transactional
     public Map<String, Object> updateOrderStatus(String username, String slug, String orderId, Map<String, String> requestBody) {
-        if (!isEmployeeAuthorizedForRestaurant(username, slug)) {
-            throw new ValidationException("Unauthorized access to restaurant: " + slug);
-        }
-
-        Restaurant restaurant = restaurantRepository.findBySlug(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found for slug: " + slug));
+        Long restaurantId = getAuthorizedRestaurantId(username, slug);
 
         CustomerOrder order = customerOrderRepository.findByOrderNumber(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
 
-        if (!order.getRestaurant().getId().equals(restaurant.getId())) {
+        if (!order.getRestaurant().getId().equals(restaurantId)) {
             throw new ValidationException("Order does not belong to this restaurant.");
         }
 
@@ -102,6 +147,7 @@ public class RestaurantService {
             throw new ValidationException("Status must be provided.");
         }
 
+        OrderStatus previousStatus = order.getStatus();
         try {
             OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
             order.setStatus(orderStatus);
@@ -110,6 +156,9 @@ public class RestaurantService {
         }
 
         customerOrderRepository.save(order);
+        if (order.getStatus() != previousStatus) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), previousStatus, order.getStatus()));
+        }
         return Map.of("message", "Order status updated successfully.");
     }
 
@@ -121,15 +170,18 @@ public class RestaurantService {
 
         boolean isAvailable = request.get("isAvailable");
 
-        if (!isEmployeeAuthorizedForRestaurant(username, slug)) {
-            throw new ValidationException("Unauthorized access to restaurant: " + slug);
-        }
+        Long restaurantId = getAuthorizedRestaurantId(username, slug);
 
         MenuItem menuItem = menuItemRepository.findById(menuItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with ID: " + menuItemId));
 
+        if (!menuItem.getRestaurant().getId().equals(restaurantId)) {
+            throw new ValidationException("Menu item does not belong to this restaurant.");
+        }
+
         menuItem.setAvailable(isAvailable);
         menuItemRepository.save(menuItem);
+        menuCacheService.invalidateMenu(restaurantId);
 
         return Map.of(
                 "message", "Menu item availability updated successfully.",
@@ -140,49 +192,74 @@ public class RestaurantService {
         );
     }
 
-    @Transactional(readOnly = true)
-    public ResponseEntity<byte[]> downloadOrdersAsCsv(String username) {
+    /**
+     * Streams the orders of the employee's restaurant as CSV, optionally filtered by date and status.
+     * The query runs while the response is written, so the export is never held in memory.
+     *
+     * @param from     First day (inclusive) of the orders to export, or null.
+     * @param to       Last day (inclusive) of the orders to export, or null.
+     * @param statuses Statuses to export, or null/empty for all.
+     * @param acceptEncoding The Accept-Encoding header; the CSV is gzipped when the client accepts it.
+     */
+    public ResponseEntity<StreamingResponseBody> downloadOrdersAsCsv(String username, LocalDate from, LocalDate to,
+                                                                     List<String> statuses, String acceptEncoding) {
         Long restaurantId = getAuthenticatedRestaurantId(username);
-        List<OrderDTO> orders = customerOrderRepository.findByRestaurant_IdWithDetails(restaurantId);
+        if (restaurantId == null) {
+            throw new ResourceNotFoundException("No restaurant found for employee: " + username);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        List<OrderStatus> orderStatuses = statuses == null ? List.of()
+                : statuses.stream().map(ValidationUtils::parseOrderStatus).toList();
+        boolean gzip = ResponseUtils.acceptsGzip(acceptEncoding);
 
-        String csvContent = CsvUtils.generateCsvFromDTO(orders, customerOrderRepository);
-        byte[] csvBytes = csvContent.getBytes(StandardCharsets.UTF_8);
+        StreamingResponseBody body = orderExportService.exportOrders(restaurantId,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                orderStatuses, gzip);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders.csv");
-        headers.add(HttpHeaders.CONTENT_TYPE, "text/csv");
+        headers.add(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
 
-        return ResponseEntity.ok().headers(headers).body(csvBytes);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerOrderDTO> getOrdersForEmployee(String slug, String username) {
-        Restaurant restaurant = restaurantRepository.findBySlugWithEmployees(slug)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with slug: " + slug));
-
-        boolean isEmployee = restaurant.getEmployees().stream()
-                .anyMatch(employee -> employee.getUsername().equals(username));
+    public CursorPage<CustomerOrderDTO> getOrdersForEmployee(String slug, String username, String cursor, int size) {
+        Long restaurantId = membershipIndex.findRestaurantId(slug);
+        if (restaurantId == null) {
+            throw new ResourceNotFoundException("Restaurant not found with slug: " + slug);
+        }
 
-        if (!isEmployee) {
+        if (!membershipIndex.isEmployee(restaurantId, username)) {
             throw new ValidationException("User is not an employee of the restaurant.");
         }
 
-        return customerOrderRepository.findByRestaurant_Id(restaurant.getId())
-                .stream().map(CustomerOrderDTO::new)
-                .collect(Collectors.toList());
+        int pageSize = CursorUtils.pageSize(size);
+        List<CustomerOrderDTO> orders = customerOrderRepository.findPageByRestaurantBefore(
+                restaurantId, CursorUtils.decodeBeforeId(cursor), CursorUtils.pageRequest(pageSize));
+        return CursorUtils.toPage(orders, pageSize, CustomerOrderDTO::getId, Function.identity());
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerOrderDTO> getOrdersByStatus(OrderStatus orderStatus) {
-        return customerOrderRepository.findByStatus(orderStatus)
-                .stream().map(CustomerOrderDTO::new)
-                .collect(Collectors.toList());
+    public CursorPage<CustomerOrderDTO> getOrdersByStatus(OrderStatus orderStatus, String cursor, int size) {
+        int pageSize = CursorUtils.pageSize(size);
+        List<CustomerOrderDTO> orders = customerOrderRepository.findPageByStatusBefore(
+                orderStatus, CursorUtils.decodeBeforeId(cursor), CursorUtils.pageRequest(pageSize));
+        return CursorUtils.toPage(orders, pageSize, CustomerOrderDTO::getId, Function.identity());
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerOrderDTO> getAllOrders() {
-        return customerOrderRepository.findAll()
-                .stream().map(CustomerOrderDTO::new)
-                .collect(Collectors.toList());
+    public CursorPage<CustomerOrderDTO> getAllOrders(String cursor, int size) {
+        int pageSize = CursorUtils.pageSize(size);
+        List<CustomerOrderDTO> orders = customerOrderRepository.findPageBefore(
+                CursorUtils.decodeBeforeId(cursor), CursorUtils.pageRequest(pageSize));
+        return CursorUtils.toPage(orders, pageSize, CustomerOrderDTO::getId, Function.identity());
     }
 }
@@ -0,0 +1,91 @@
+package com.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates order numbers from a 64-bit id laid out as
+ * {@code [41 bits milliseconds since 2024-01-01][10 bits node id][12 bits counter]}.
+ * <p>
+ * Ids are strictly increasing per node and unique across nodes as long as every instance
+ * runs with its own {@code order-number.node-id}. If more than 4096 ids are requested within
+ * one millisecond, or the wall clock steps backwards, the generator keeps counting on from
+ * the last id instead of waiting, so it never blocks and never repeats an id.
+ * <p>
+ * The id is rendered as "ORD-" followed by 13 Crockford base32 characters, so string order
+ * matches numeric order and new rows append to the end of the order_number index.
+ */
+@Component
+public class TimeBasedOrderNumberGenerator implements OrderNumberGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int COUNTER_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final String PREFIX = "ORD-";
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13; // ceil(64 / 5)
+
+    private final LongSupplier clock;
+    private final long nodeBits;
+
+    /** Last issued (timestamp, counter) pair, packed as {@code timestamp << COUNTER_BITS | counter}. */
+    private final AtomicLong lastTick = new AtomicLong();
+
+    @Autowired
+    public TimeBasedOrderNumberGenerator(@Value("${order-number.node-id:0}") long nodeId) {
+        this(System::currentTimeMillis, nodeId);
+    }
+
+    TimeBasedOrderNumberGenerator(LongSupplier clock, long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order-number.node-id must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        this.clock = clock;
+        this.nodeBits = nodeId << COUNTER_BITS;
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return format(nextId());
+    }
+
+    /**
+     * Returns the next raw id for this node.
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << COUNTER_BITS;
+        long tick;
+        while (true) {
+            long last = lastTick.get();
+            // Counter overflow simply carries into the timestamp bits.
+            tick = Math.max(now, last + 1);
+            if (lastTick.compareAndSet(last, tick)) {
+                break;
+            }
+        }
+        long timestamp = tick >>> COUNTER_BITS;
+        long counter = tick & ((1L << COUNTER_BITS) - 1);
+        return (timestamp << (NODE_BITS + COUNTER_BITS)) | nodeBits | counter;
+    }
+
+    /**
+     * Renders an id as a fixed-width order number.
+     */
+    static String format(long id) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,281 @@
+package com.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An append-only log of blacklisted token fingerprints in memory-mapped segment files, shared by the
+ * instances that use the same directory.
+ * <p>
+ * Every instance appends to segments of its own ({@code <instance>-<sequence>.seg}) and holds a file lock on
+ * the one it is writing. A segment starts with a 16-byte header (magic, version, latest expiry in it) followed
+ * by 24-byte records (fingerprint high, fingerprint low, expiry). Files are created zero-filled at full size
+ * and the expiry of a record is written last with release semantics, so a reader that sees a non-zero expiry
+ * sees the whole record and stops at the first zero one. That lets other instances tail a segment while it is
+ * written, without any locking.
+ * <p>
+ * A full segment is rolled over to a new one. A segment is deleted once nobody writes it any more and all of
+ * its tokens have expired, which keeps the directory bounded by the tokens that can still validate.
+ * <p>
+ * Not thread-safe: the {@link TokenBlacklistService} calls it under its write lock.
+ */
+final class TokenBlacklistLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistLog.class);
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+
+    private static final int MAGIC = 0x54424c47; // "TBLG"
+    private static final int VERSION = 1;
+    private static final int MAX_EXPIRY_OFFSET = 8;
+    private static final String SUFFIX = ".seg";
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Receives the records read from the log.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long high, long low, long expiry);
+    }
+
+    private final Path directory;
+    private final int capacity; // Records per segment
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Path, SegmentReader> readers = new HashMap<>(); // Segments of other writers
+    private final Set<Path> ownSegments = new HashSet<>();
+
+    private int sequence;
+    private Path activePath;
+    private FileChannel activeChannel;
+    private FileLock activeLock;
+    private MappedByteBuffer active;
+    private int activeRecords;
+    private long activeMaxExpiry;
+
+    /**
+     * Opens the log in a directory, which is created if needed.
+     *
+     * @param segmentSize The size of a segment file in bytes.
+     */
+    TokenBlacklistLog(Path directory, long segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid token blacklist segment size: " + segmentSize);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.capacity = (int) ((segmentSize - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    /**
+     * Reads every record already in the directory. Segments written by others are tailed by {@link #poll}
+     * from where this left off.
+     */
+    void replay(RecordConsumer consumer) throws IOException {
+        poll(consumer);
+    }
+
+    /**
+     * Appends a record, rolling over to a new segment when the current one is full.
+     */
+    void append(long high, long low, long expiry) {
+        try {
+            if (active == null || activeRecords == capacity) {
+                roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a token blacklist segment in " + directory, e);
+        }
+
+        int offset = HEADER_SIZE + activeRecords * RECORD_SIZE;
+        active.putLong(offset, high);
+        active.putLong(offset + 8, low);
+        if (expiry > activeMaxExpiry) {
+            activeMaxExpiry = expiry;
+            LONGS.setRelease(active, MAX_EXPIRY_OFFSET, expiry);
+        }
+        LONGS.setRelease(active, offset + 16, expiry); // Publishes the record
+        activeRecords++;
+    }
+
+    /**
+     * Reads the records appended by others since the last call, including segments they started meanwhile.
+     */
+    void poll(RecordConsumer consumer) throws IOException {
+        Set<Path> present = new HashSet<>();
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path segment : segments) {
+                present.add(segment);
+                if (ownSegments.contains(segment)) {
+                    continue;
+                }
+                SegmentReader reader = readers.get(segment);
+                if (reader == null) {
+                    reader = SegmentReader.open(segment);
+                    if (reader == null) {
+                        continue; // Not fully created yet
+                    }
+                    readers.put(segment, reader);
+                }
+                reader.readNew(consumer);
+            }
+        }
+        readers.keySet().retainAll(present); // Deleted by compaction
+    }
+
+    /**
+     * Deletes the segments that nobody writes any more and whose tokens have all expired.
+     *
+     * @param now The current time in epoch milliseconds.
+     */
+    void compact(long now) throws IOException {
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path segment : segments) {
+                if (!segment.equals(activePath) && isExpiredAndUnlocked(segment, now)) {
+                    Files.deleteIfExists(segment);
+                    readers.remove(segment);
+                    ownSegments.remove(segment);
+                    logger.debug("Deleted expired token blacklist segment {}", segment);
+                }
+            }
+        }
+    }
+
+    private static boolean isExpiredAndUnlocked(Path segment, long now) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                return false; // Written by this process
+            }
+            if (lock == null) {
+                return false; // Written by another process
+            }
+            try {
+                if (channel.size() < HEADER_SIZE) {
+                    return true; // Not a segment
+                }
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                return (int) INTS.getAcquire(header, 0) != MAGIC || (long) LONGS.getAcquire(header, MAX_EXPIRY_OFFSET) <= now;
+            } finally {
+                lock.release();
+            }
+        } catch (NoSuchFileException e) {
+            return false; // Deleted by another instance
+        }
+    }
+
+    private void roll() throws IOException {
+        releaseActive();
+
+        String name = instanceId + "-" + String.format("%06d", sequence++);
+        Path path = directory.resolve(name + SUFFIX);
+        Path tempPath = directory.resolve(name + ".tmp");
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        FileChannel channel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.lock();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size); // Zero-filled
+            buffer.putInt(4, VERSION);
+            INTS.setRelease(buffer, 0, MAGIC);
+            // Appears under its segment name only when locked and complete, so nobody takes it for abandoned
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE);
+
+            activePath = path;
+            activeChannel = channel;
+            activeLock = lock;
+            active = buffer;
+            activeRecords = 0;
+            activeMaxExpiry = 0;
+            ownSegments.add(path);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+
+    private void releaseActive() throws IOException {
+        if (activeChannel != null) {
+            active.force();
+            activeLock.release();
+            activeChannel.close();
+            activePath = null;
+            activeChannel = null;
+            activeLock = null;
+            active = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        releaseActive();
+    }
+
+    /**
+     * Reads the records of a segment written by someone else, from where the previous read stopped.
+     */
+    private static final class SegmentReader {
+
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int nextRecord;
+
+        private SegmentReader(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        }
+
+        static SegmentReader open(Path segment) throws IOException {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE + RECORD_SIZE || size > Integer.MAX_VALUE) {
+                    return null;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if ((int) INTS.getAcquire(buffer, 0) != MAGIC || buffer.getInt(4) != VERSION) {
+                    return null;
+                }
+                return new SegmentReader(buffer);
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+
+        void readNew(RecordConsumer consumer) {
+            while (nextRecord < capacity) {
+                int offset = HEADER_SIZE + nextRecord * RECORD_SIZE;
+                long expiry = (long) LONGS.getAcquire(buffer, offset + 16);
+                if (expiry == 0) {
+                    return; // Not written yet
+                }
+                consumer.accept(buffer.getLong(offset), buffer.getLong(offset + 8), expiry);
+                nextRecord++;
+            }
+        }
+    }
+}
@@ -2,23 +2,202 @@
 
 package com.service;
 
+import com.security.JwtTokenUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
-import java.util.Set;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+/**
+ * Keeps logged-out tokens from being used again until they expire.
+ * <p>
+ * Only a 128-bit fingerprint of each token (the first half of its SHA-256) is kept, with the token's expiry.
+ * Entries are filed in a hashed timer wheel by expiry and dropped once the token could no longer validate
+ * anyway, so memory is bounded by the tokens logged out within one token lifetime.
+ * <p>
+ * Checks go through a blocked Bloom filter first, in which each token maps to a single 64-byte block, so a
+ * token that was never blacklisted (almost every request) is answered from one cache line per filter
+ * generation. Bloom filters cannot delete, so a new generation is started every
+ * {@code security.token-blacklist.bloom.rotation-interval} or when the current one is full, and a generation
+ * is dropped once all of its tokens have expired.
+ * <p>
+ * When {@code security.token-blacklist.log.directory} is set, blacklisted fingerprints are also appended to a
+ * {@link TokenBlacklistLog} there. It is replayed on startup, and the instances sharing the directory pick up
+ * each other's logouts on every tick. Checks never touch the log.
+ */
 @Service
-public class TokenBlacklistService {
+public class TokenBlacklistService implements DisposableBean {
 
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 4096; // Ticks per turn of the wheel, longer than a token lifetime
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final int bloomExpectedInsertions;
+    private final long bloomRotationMillis;
+    private final Clock clock;
+    private final ScheduledExecutorService executor;
+    private final TokenBlacklistLog log; // Null unless the blacklist is persisted
+
+    private final Map<Fingerprint, Long> expiries = new ConcurrentHashMap<>();
+    private final List<List<Fingerprint>> wheel = new ArrayList<>(WHEEL_SIZE); // Guarded by writeLock
+    private final Object writeLock = new Object();
+    private volatile List<BloomGeneration> generations; // Newest first
+    private long lastTick; // Guarded by writeLock
+
+    @Autowired
+    public TokenBlacklistService(JwtTokenUtil jwtTokenUtil,
+                                 @Value("${security.token-blacklist.bloom.expected-insertions:100000}") int bloomExpectedInsertions,
+                                 @Value("${security.token-blacklist.bloom.rotation-interval:10m}") Duration bloomRotationInterval,
+                                 @Value("${security.token-blacklist.log.directory:}") String logDirectory,
+                                 @Value("${security.token-blacklist.log.segment-size:1MB}") DataSize logSegmentSize) {
+        this(jwtTokenUtil, bloomExpectedInsertions, bloomRotationInterval, Clock.systemUTC(),
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "token-blacklist");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                openLog(logDirectory, logSegmentSize));
+        executor.scheduleAtFixedRate(this::expireQuietly, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    TokenBlacklistService(JwtTokenUtil jwtTokenUtil, int bloomExpectedInsertions, Duration bloomRotationInterval,
+                          Clock clock, ScheduledExecutorService executor, TokenBlacklistLog log) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.bloomExpectedInsertions = bloomExpectedInsertions;
+        this.bloomRotationMillis = bloomRotationInterval.toMillis();
+        this.clock = clock;
+        this.executor = executor;
+        this.log = log;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.lastTick = clock.millis() / TICK_MILLIS;
+        this.generations = List.of(new BloomGeneration(bloomExpectedInsertions, clock.millis()));
+
+        if (log != null) {
+            long start = System.nanoTime();
+            synchronized (writeLock) {
+                try {
+                    log.replay(this::restore);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not replay the token blacklist log", e);
+                }
+            }
+            logger.info("Replayed {} blacklisted tokens in {} ms", expiries.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
 
     /**
-     * Add a token to the blacklist.
+     * Opens the blacklist log when a directory is configured; without one the blacklist is kept in memory only.
+     */
+    private static TokenBlacklistLog openLog(String directory, DataSize segmentSize) {
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        try {
+            return new TokenBlacklistLog(Path.of(directory), segmentSize.toBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the token blacklist log in " + directory, e);
+        }
+    }
+
+    /**
+     * Add a token to the blacklist until it expires. Invalid and expired tokens are ignored, as they are
+     * refused anyway.
      *
      * @param token the token to blacklist.
      */
     public void blacklistToken(String token) {
-        blacklistedTokens.add(token);
+        Instant expiresAt = jwtTokenUtil.getExpiration(token);
+        if (expiresAt == null) {
+            logger.debug("Not blacklisting an invalid or expired token");
+            return;
+        }
+        blacklistToken(token, expiresAt);
+    }
+
+    /**
+     * Add a token to the blacklist until the given expiry.
+     */
+    void blacklistToken(String token, Instant expiresAt) {
+        long now = clock.millis();
+        long expiry = expiresAt.equals(Instant.MAX) ? Long.MAX_VALUE : expiresAt.toEpochMilli();
+        if (expiry <= now) {
+            return;
+        }
+
+        Fingerprint fingerprint = Fingerprint.of(token);
+        synchronized (writeLock) {
+            if (add(fingerprint, expiry, now) && log != null) {
+                try {
+                    log.append(fingerprint.high(), fingerprint.low(), expiry);
+                } catch (UncheckedIOException e) {
+                    logger.error("Could not persist a blacklisted token; it is blacklisted on this instance only", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a blacklisted token read from the log, unless it has expired meanwhile.
+     */
+    private void restore(long high, long low, long expiry) {
+        long now = clock.millis();
+        if (expiry > now) {
+            add(new Fingerprint(high, low), expiry, now);
+        }
+    }
+
+    /**
+     * Files a fingerprint in the map, the timer wheel and the Bloom filter. Called under the write lock.
+     *
+     * @return Whether the fingerprint was new.
+     */
+    private boolean add(Fingerprint fingerprint, long expiry, long now) {
+        if (expiries.putIfAbsent(fingerprint, expiry) != null) {
+            return false;
+        }
+        if (expiry != Long.MAX_VALUE) { // Tokens that never expire stay blacklisted
+            // The first tick at or after the expiry, so the entry is due when its slot comes up
+            long tick = Math.max((expiry + TICK_MILLIS - 1) / TICK_MILLIS, lastTick + 1);
+            wheel.get((int) (tick % WHEEL_SIZE)).add(fingerprint);
+        }
+
+        BloomGeneration current = generations.get(0);
+        if (current.size >= bloomExpectedInsertions || now - current.createdAt >= bloomRotationMillis) {
+            current = new BloomGeneration(bloomExpectedInsertions, now);
+            List<BloomGeneration> rotated = new ArrayList<>(generations.size() + 1);
+            rotated.add(current);
+            rotated.addAll(generations);
+            generations = List.copyOf(rotated);
+        }
+        current.add(fingerprint, expiry);
+        return true;
     }
 
     /**
@@ -28,6 +207,143 @@ public class TokenBlacklistService {
      * @return true if blacklisted, false otherwise.
      */
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+        Fingerprint fingerprint = Fingerprint.of(token);
+        for (BloomGeneration generation : generations) {
+            if (generation.mightContain(fingerprint)) {
+                return expiries.containsKey(fingerprint);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the entries whose token has expired by now, and the Bloom filter generations holding only such tokens.
+     * Runs every tick on this service's own thread.
+     */
+    void expire() {
+        synchronized (writeLock) {
+            long now = clock.millis();
+            long nowTick = now / TICK_MILLIS;
+            for (long tick = Math.max(lastTick + 1, nowTick - WHEEL_SIZE + 1); tick <= nowTick; tick++) {
+                // A slot also holds entries due in later turns of the wheel; those stay
+                wheel.get((int) (tick % WHEEL_SIZE)).removeIf(fingerprint -> {
+                    Long expiry = expiries.get(fingerprint);
+                    if (expiry != null && expiry > now) {
+                        return false;
+                    }
+                    expiries.remove(fingerprint);
+                    return true;
+                });
+            }
+            lastTick = Math.max(lastTick, nowTick);
+
+            BloomGeneration current = generations.get(0);
+            List<BloomGeneration> live = generations.stream()
+                    .filter(generation -> generation == current || generation.maxExpiry > now)
+                    .toList();
+            if (live.size() != generations.size()) {
+                generations = live;
+            }
+
+            if (log != null) {
+                try {
+                    log.poll(this::restore);
+                    log.compact(now);
+                } catch (IOException e) {
+                    logger.warn("Could not read or compact the token blacklist log: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void expireQuietly() {
+        try {
+            expire();
+        } catch (RuntimeException e) {
+            logger.warn("Could not expire blacklisted tokens", e);
+        }
+    }
+
+    /**
+     * The number of blacklisted tokens that have not been dropped yet.
+     */
+    int size() {
+        return expiries.size();
+    }
+
+    /**
+     * The number of Bloom filter generations in use.
+     */
+    int bloomGenerations() {
+        return generations.size();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (log != null) {
+            synchronized (writeLock) {
+                log.close();
+            }
+        }
+    }
+
+    private record Fingerprint(long high, long low) {
+
+        static Fingerprint of(String token) {
+            try {
+                ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.UTF_8)));
+                return new Fingerprint(digest.getLong(), digest.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+
+    /**
+     * A blocked Bloom filter of about 10 bits per expected token, for a false positive rate around 1%.
+     * The block is chosen by the high half of the fingerprint and 7 bits within its 512 by the low half.
+     */
+    private static final class BloomGeneration {
+
+        private static final int WORDS_PER_BLOCK = 8; // 512 bits, one 64-byte cache line
+        private static final int BITS_PER_TOKEN = 10;
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final int blocks;
+        private final long createdAt;
+        private int size; // Guarded by the service's writeLock
+        private volatile long maxExpiry;
+
+        BloomGeneration(int expectedInsertions, long createdAt) {
+            this.blocks = Math.max(1, (int) ((long) expectedInsertions * BITS_PER_TOKEN / (WORDS_PER_BLOCK * 64) + 1));
+            this.words = new AtomicLongArray(blocks * WORDS_PER_BLOCK);
+            this.createdAt = createdAt;
+        }
+
+        void add(Fingerprint fingerprint, long expiry) {
+            int base = Math.floorMod(fingerprint.high(), blocks) * WORDS_PER_BLOCK;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (int) (fingerprint.low() >>> (9 * i)) & 511;
+                words.getAndAccumulate(base + (bit >>> 6), 1L << (bit & 63), (word, mask) -> word | mask);
+            }
+            size++;
+            maxExpiry = Math.max(maxExpiry, expiry);
+        }
+
+        boolean mightContain(Fingerprint fingerprint) {
+            int base = Math.floorMod(fingerprint.high(), blocks) * WORDS_PER_BLOCK;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (int) (fingerprint.low() >>> (9 * i)) & 511;
+                if ((words.get(base + (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 }
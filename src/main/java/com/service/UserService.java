@@ -1,27 +1,38 @@
 package com.service;
 
+import com.dto.AppUserSnapshot;
 import com.exception.ResourceNotFoundException;
 import com.exception.ValidationException;
 import com.model.AppUser;
 import com.repository.AppUserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for handling user-related operations.
+ * <p>
+ * Snapshots of users are cached by username in the {@value #APP_USERS} cache, bounded and expired by the
+ * {@code spring.cache.caffeine.spec}, so logins and requests that need the user's IDs skip the database.
+ * Unknown usernames are not cached.
  */
 @Service
 public class UserService {
 
+    public static final String APP_USERS = "appUsers";
+
     private final AppUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Cache appUsers;
 
     /**
      * Constructor-based Dependency Injection.
      */
-    public UserService(AppUserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(AppUserRepository userRepository, PasswordEncoder passwordEncoder, CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.appUsers = cacheManager.getCache(APP_USERS);
     }
 
     /**
@@ -46,7 +57,9 @@ public class UserService {
     public AppUser addUser(AppUser user) {
         validateUser(user); // Validate before saving
         user.setPassword(passwordEncoder.encode(user.getPassword())); // Encrypt password
-        return userRepository.save(user);
+        AppUser saved = userRepository.save(user);
+        invalidateUser(saved.getUsername());
+        return saved;
     }
 
     /**
@@ -57,7 +70,7 @@ public class UserService {
      * @throws ResourceNotFoundException if user is not found.
      */
     public boolean userExists(String username) {
-        boolean exists = userRepository.findByUsername(username).isPresent();
+        boolean exists = findUserSnapshot(username) != null;
         if (!exists) {
             throw new ResourceNotFoundException("User not found with username: " + username);
         }
@@ -76,6 +89,42 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
 
+    /**
+     * Retrieve a snapshot of a user by their username, from the cache when possible.
+     *
+     * @param username Username to find.
+     * @return Snapshot of the user if found.
+     * @throws ResourceNotFoundException if user is not found.
+     */
+    public AppUserSnapshot getUserSnapshot(String username) {
+        AppUserSnapshot snapshot = findUserSnapshot(username);
+        if (snapshot == null) {
+            throw new ResourceNotFoundException("User not found with username: " + username);
+        }
+        return snapshot;
+    }
+
+    private AppUserSnapshot findUserSnapshot(String username) {
+        AppUserSnapshot cached = appUsers.get(username, AppUserSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+        AppUserSnapshot snapshot = userRepository.findSnapshotByUsername(username).orElse(null);
+        if (snapshot != null) {
+            appUsers.put(username, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the cached snapshot of a user. Call it whenever a user is created or changed.
+     *
+     * @param username Username of the user.
+     */
+    public void invalidateUser(String username) {
+        appUsers.evict(username);
+    }
+
     /**
      * Validates user details before saving.
      *
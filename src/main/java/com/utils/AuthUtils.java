@@ -1,6 +1,7 @@
 package com.utils;
 
 import com.repository.AppUserRepository;
+import com.security.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,5 +33,25 @@ public class AuthUtils {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
+    /**
+     * Returns the authenticated user with the IDs from its token, or null if there is none or the token was
+     * issued without them.
+     */
+    public static AuthenticatedUser getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user && user.hasClaims()) {
+            return user;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the authenticated user with the IDs from its token if it is the given user, or null otherwise.
+     */
+    public static AuthenticatedUser getAuthenticatedUser(String username) {
+        AuthenticatedUser user = getAuthenticatedUser();
+        return user != null && user.getUsername().equals(username) ? user : null;
+    }
+
 
 }
@@ -0,0 +1,81 @@
+package com.utils;
+
+import com.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utility class for keyset (cursor) pagination of listings ordered by descending ID.
+ * <p>
+ * A cursor is an opaque, URL-safe token holding the ID of the last row of the previous page, so the next
+ * page is fetched with {@code WHERE id < :beforeId ORDER BY id DESC} and stays fast however deep it is.
+ */
+public class CursorUtils {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String PREFIX = "id:";
+
+    private CursorUtils() {} // Prevent instantiation
+
+    /**
+     * Encodes the ID of the last row of a page as a cursor.
+     */
+    public static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor into the exclusive upper ID bound of the next page.
+     * Without a cursor the listing starts at the newest row.
+     *
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode(long)}.
+     */
+    public static long decodeBeforeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the error below (also covers NumberFormatException)
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    /**
+     * Clamps a requested page size to 1..{@link #MAX_PAGE_SIZE}.
+     */
+    public static int pageSize(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Returns a request for one row more than the page size, which tells whether there is a next page
+     * without a count query.
+     */
+    public static Pageable pageRequest(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Turns the rows fetched with {@link #pageRequest(int)} into a page of mapped items.
+     */
+    public static <E, T> CursorPage<T> toPage(List<E> rows, int pageSize, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? encode(idOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+}
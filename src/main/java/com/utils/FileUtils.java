@@ -1,5 +1,6 @@
 package com.utils;
 
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 public class FileUtils {
@@ -7,17 +8,18 @@ public class FileUtils {
     /**
      * Validates if the uploaded file is a valid CSV.
      *
-     * @param file The file to validate.
+     * @param file    The file to validate.
+     * @param maxSize The largest accepted file size.
      */
-    public static void validateCsvFile(MultipartFile file) {
+    public static void validateCsvFile(MultipartFile file, DataSize maxSize) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("The uploaded file is empty.");
         }
         if (!file.getOriginalFilename().toLowerCase().endsWith(".csv")) {
             throw new IllegalArgumentException("Invalid file format. Please upload a .csv file.");
         }
-        if (file.getSize() > 2 * 1024 * 1024) { // 2MB limit
-            throw new IllegalArgumentException("File size exceeds the 2MB limit.");
+        if (file.getSize() > maxSize.toBytes()) {
+            throw new IllegalArgumentException("File size exceeds the " + maxSize.toMegabytes() + "MB limit.");
         }
     }
 }
@@ -21,6 +21,13 @@ public class OrderUtils {
         return List.of(OrderStatus.READY_FOR_DELIVERY, OrderStatus.PICKING_UP, OrderStatus.TRANSPORT);
     }
 
+    /**
+     * Retrieves the statuses in which an unassigned order can be claimed by a delivery person.
+     */
+    public static List<OrderStatus> getClaimableStatuses() {
+        return getActiveDeliveryStatuses();
+    }
+
     /**
      * Retrieves statuses for in-progress orders.
      */
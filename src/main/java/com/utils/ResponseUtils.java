@@ -1,6 +1,13 @@
 package com.utils;
 
+import com.dto.CursorPage;
+import com.response.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
@@ -13,8 +20,31 @@ public class ResponseUtils {
      * Handles service calls and wraps exceptions in a consistent error response.
      */
     public static <T> ResponseEntity<T> handleRequest(Supplier<T> action) {
+        return handle(() -> ResponseEntity.ok(action.get()));
+    }
+
+    /**
+     * Like {@link #handleRequest(Supplier)} for a keyset-paginated listing.
+     */
+    public static <T> ResponseEntity<ApiResponse<List<T>>> handlePagedRequest(Supplier<CursorPage<T>> action) {
+        return handle(() -> pagedResponse(action.get()));
+    }
+
+    /**
+     * Returns the items of a page as the body and the cursor of the next page, if any, in the
+     * {@value CursorUtils#NEXT_CURSOR_HEADER} header, so the body keeps its plain list shape.
+     */
+    public static <T> ResponseEntity<ApiResponse<List<T>>> pagedResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorUtils.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(ApiResponse.success(page.getItems()));
+    }
+
+    private static <T> ResponseEntity<T> handle(Supplier<ResponseEntity<T>> action) {
         try {
-            return ResponseEntity.ok(action.get());
+            return action.get();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
         } catch (RuntimeException e) {
@@ -24,6 +54,44 @@ public class ResponseUtils {
         }
     }
 
+    /**
+     * Answers a conditional GET with 304 when the client's copy matches the ETag, without building the body.
+     * A null ETag (version not known yet) skips the check and sends the body without one.
+     * Responses vary by Authorization because the content depends on the caller's role.
+     */
+    public static <T> ResponseEntity<T> conditionalGet(WebRequest request, String eTag, Supplier<T> body) {
+        if (eTag != null && request.checkNotModified(eTag)) {
+            // checkNotModified has already written the ETag header
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.AUTHORIZATION).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.AUTHORIZATION);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(body.get());
+    }
+
+    /**
+     * Checks an Accept-Encoding header for gzip, honouring an explicit q=0.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> T createErrorResponse(String message) {
         return (T) Map.of("error", message);
@@ -5,13 +5,26 @@ DROP TABLE IF EXISTS menu_item CASCADE;
 DROP TABLE IF EXISTS app_users CASCADE;
 DROP TABLE IF EXISTS restaurant CASCADE;
 DROP TABLE IF EXISTS address CASCADE;
+DROP SEQUENCE IF EXISTS order_items_seq;
+DROP SEQUENCE IF EXISTS customer_order_seq;
+DROP SEQUENCE IF EXISTS menu_item_seq;
+DROP SEQUENCE IF EXISTS app_users_seq;
+DROP SEQUENCE IF EXISTS address_seq;
 
 -- Enable the pgcrypto extension
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
 
+-- Sequences for the entity IDs. They advance in blocks of 50 to match the pooled
+-- allocationSize on the entities, and start above the IDs used by the seed data.
+CREATE SEQUENCE IF NOT EXISTS address_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS app_users_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS menu_item_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS customer_order_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1000 INCREMENT BY 50;
+
 -- Table: address
 CREATE TABLE IF NOT EXISTS address (
-                                       id SERIAL PRIMARY KEY,
+                                       id INT DEFAULT nextval('address_seq') PRIMARY KEY,
                                        street_name VARCHAR(255) NOT NULL,
                                        house_number VARCHAR(10) NOT NULL,
                                        postal_code VARCHAR(20) NOT NULL,
@@ -29,7 +42,7 @@ CREATE TABLE IF NOT EXISTS restaurant (
 
 -- Table: app_users
 CREATE TABLE IF NOT EXISTS app_users (
-                                         id SERIAL PRIMARY KEY,
+                                         id INT DEFAULT nextval('app_users_seq') PRIMARY KEY,
                                          username VARCHAR(255) NOT NULL UNIQUE,
                                          password VARCHAR(255) NOT NULL,
                                          role VARCHAR(255) NOT NULL CHECK (role IN ('CUSTOMER', 'RESTAURANT_EMPLOYEE', 'DELIVERY_PERSON')),
@@ -40,7 +53,7 @@ CREATE TABLE IF NOT EXISTS app_users (
 
 -- Table: menu_item
 CREATE TABLE IF NOT EXISTS menu_item (
-                                         id SERIAL PRIMARY KEY,
+                                         id INT DEFAULT nextval('menu_item_seq') PRIMARY KEY,
                                          name VARCHAR(255) NOT NULL,
                                          description VARCHAR(255),
                                          price DECIMAL(10, 2) NOT NULL CHECK (price >= 0),
@@ -52,21 +65,34 @@ CREATE TABLE IF NOT EXISTS menu_item (
 
 -- Table: customer_order
 CREATE TABLE IF NOT EXISTS customer_order (
-                                              id SERIAL PRIMARY KEY,
+                                              id INT DEFAULT nextval('customer_order_seq') PRIMARY KEY,
                                               user_id INT REFERENCES app_users(id) ON DELETE CASCADE ON UPDATE CASCADE,
                                               address_id INT REFERENCES address(id) ON DELETE SET NULL ON UPDATE CASCADE,
                                               status VARCHAR(255) NOT NULL CHECK (status IN ('UNCONFIRMED', 'CONFIRMED', 'PICKING_UP', 'TRANSPORT', 'DELIVERED', 'READY_FOR_DELIVERY', 'IN_KITCHEN', 'CANCELED')), -- Ensure 'CANCELED' is included
                                               total_price DECIMAL(10, 2) CHECK (total_price >= 0),
                                               restaurant_id INT REFERENCES restaurant(id) ON DELETE SET NULL ON UPDATE CASCADE,
                                               order_number VARCHAR(255) NOT NULL UNIQUE,
-                                              delivery_person VARCHAR(255) DEFAULT NULL
+                                              delivery_person VARCHAR(255) DEFAULT NULL,
+                                              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
 -- Table: order_items
 CREATE TABLE IF NOT EXISTS order_items (
-                                           id SERIAL PRIMARY KEY,
+                                           id INT DEFAULT nextval('order_items_seq') PRIMARY KEY,
                                            customer_order_id INT REFERENCES customer_order(id) ON DELETE CASCADE ON UPDATE CASCADE,
                                            menu_item_id INT REFERENCES menu_item(id) ON DELETE CASCADE ON UPDATE CASCADE,
                                            quantity INT NOT NULL CHECK (quantity > 0),
                                            order_number VARCHAR(255)
 );
+
+-- Indexes for the repository queries. Order listings are keyset pages ordered by ID, so ID comes last
+-- and a page is read straight off the index.
+CREATE INDEX IF NOT EXISTS idx_customer_order_status_id ON customer_order (status, id);
+CREATE INDEX IF NOT EXISTS idx_customer_order_delivery_person_status_id ON customer_order (delivery_person, status, id)
+    WHERE delivery_person IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_customer_order_restaurant_id_id ON customer_order (restaurant_id, id);
+CREATE INDEX IF NOT EXISTS idx_customer_order_user_id_id ON customer_order (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_order_items_customer_order_id ON order_items (customer_order_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_menu_item_id ON order_items (menu_item_id);
+CREATE INDEX IF NOT EXISTS idx_menu_item_restaurant_id_is_available ON menu_item (restaurant_id, is_available);
+CREATE INDEX IF NOT EXISTS idx_app_users_restaurant_id ON app_users (restaurant_id);
@@ -0,0 +1,69 @@
+package com.benchmark;
+
+import com.service.DispatchPlanner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one dispatch round of 10,000 unassigned orders and 2,000 couriers with random current loads.
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.benchmark.DispatchPlannerBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchPlannerBenchmark {
+
+    private static final int MAX_LOAD = 3;
+
+    @Param("10000")
+    private int orders;
+
+    @Param("2000")
+    private int couriers;
+
+    private List<Long> orderIds;
+    private List<String> courierNames;
+    private Map<String, Integer> loads;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        orderIds = new ArrayList<>(orders);
+        for (long id = 1; id <= orders; id++) {
+            orderIds.add(id);
+        }
+        courierNames = new ArrayList<>(couriers);
+        loads = new HashMap<>();
+        for (int i = 0; i < couriers; i++) {
+            String courier = "courier" + i;
+            courierNames.add(courier);
+            int load = random.nextInt(MAX_LOAD + 1);
+            if (load > 0) {
+                loads.put(courier, load);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<DispatchPlanner.Assignment> plan() {
+        return DispatchPlanner.plan(orderIds, courierNames, loads, MAX_LOAD);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DispatchPlannerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.benchmark;
+
+import com.ThuisBezorgdMiniApplication;
+import com.event.OrderClaimedEvent;
+import com.service.ActiveOrderBoard;
+import com.service.DispatchService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures a whole dispatch round against the test database: reading the board, planning, claiming the orders
+ * in one batch and refreshing the board. Each round assigns 2,000 unassigned orders to 1,000 couriers who hold
+ * one order each; the claims are undone before every round.
+ * Needs the PostgreSQL database of {@code application-test.properties}.
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.benchmark.DispatchRoundBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DispatchRoundBenchmark {
+
+    private static final long FIRST_ID = 1_000_001;
+
+    @Param("2000")
+    private int orders;
+
+    @Param("1000")
+    private int couriers;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private ActiveOrderBoard activeOrderBoard;
+    private DispatchService dispatchService;
+    private List<Long> orderIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ThuisBezorgdMiniApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("logging.level.com.service=WARN")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        activeOrderBoard = context.getBean(ActiveOrderBoard.class);
+        dispatchService = context.getBean(DispatchService.class);
+        activeOrderBoard.findUnassignedOrderIds(); // Waits for the startup load
+
+        deleteOrders();
+        jdbcTemplate.update("""
+                INSERT INTO customer_order (id, user_id, status, total_price, restaurant_id, order_number)
+                SELECT ? + g, 1, 'READY_FOR_DELIVERY', 10, 1, 'DISPATCH' || g
+                FROM generate_series(0, ? - 1) g""", FIRST_ID, orders);
+        jdbcTemplate.update("""
+                INSERT INTO customer_order (id, user_id, status, total_price, restaurant_id, order_number, delivery_person)
+                SELECT ? + g, 1, 'PICKING_UP', 10, 1, 'DISPATCH-HELD' || g, 'courier' || g
+                FROM generate_series(0, ? - 1) g""", FIRST_ID + orders, couriers);
+        jdbcTemplate.execute("ANALYZE customer_order");
+
+        orderIds = LongStream.range(FIRST_ID, FIRST_ID + orders).boxed().toList();
+        List<Long> heldIds = LongStream.range(FIRST_ID + orders, FIRST_ID + orders + couriers).boxed().toList();
+        activeOrderBoard.refreshNow(heldIds);
+        for (int i = 0; i < couriers; i++) {
+            // What a courier's own claim publishes; it makes the courier available to the dispatcher
+            context.publishEvent(new OrderClaimedEvent(heldIds.get(i), "courier" + i));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void unassign() {
+        jdbcTemplate.update("UPDATE customer_order SET delivery_person = NULL WHERE id BETWEEN ? AND ?",
+                FIRST_ID, FIRST_ID + orders - 1);
+        activeOrderBoard.refreshNow(orderIds);
+    }
+
+    @Benchmark
+    public int dispatchRound() {
+        return dispatchService.dispatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        deleteOrders();
+        context.close();
+    }
+
+    private void deleteOrders() {
+        jdbcTemplate.update("DELETE FROM customer_order WHERE id >= ?", FIRST_ID);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DispatchRoundBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.benchmark;
+
+import com.service.TimeBasedOrderNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time-based order number generator with the previous UUID-based numbers.
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.benchmark.OrderNumberGeneratorBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderNumberGeneratorBenchmark {
+
+    private final TimeBasedOrderNumberGenerator generator = new TimeBasedOrderNumberGenerator(0);
+
+    @Benchmark
+    public String timeBased() {
+        return generator.nextOrderNumber();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeBasedContended() {
+        return generator.nextOrderNumber();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderNumberGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.controller;
+
+import com.security.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ActuatorEndpointTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private String baseUrl;
+
+    @BeforeEach
+    void setup() {
+        baseUrl = "http://localhost:" + port;
+        restTemplate.getRestTemplate().setRequestFactory(new HttpComponentsClientHttpRequestFactory());
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return restTemplate.exchange(baseUrl + path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    /** Test: A restaurant employee can read the cache metrics */
+    @Test
+    void testCacheMetrics_RestaurantEmployee() {
+        String token = jwtTokenUtil.generateToken("marysmith", "RESTAURANT_EMPLOYEE");
+
+        ResponseEntity<String> response = get("/actuator/metrics/cache.gets", token);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().contains("\"name\":\"cache.gets\""), response.getBody());
+    }
+
+    /** Test: Other roles and anonymous callers cannot read the metrics */
+    @Test
+    void testCacheMetrics_OtherCallersDenied() {
+        String token = jwtTokenUtil.generateToken("johndoe", "CUSTOMER");
+
+        assertEquals(HttpStatus.FORBIDDEN, get("/actuator/metrics/cache.gets", token).getStatusCode());
+        assertNotEquals(HttpStatus.OK, get("/actuator/metrics/cache.gets", null).getStatusCode());
+    }
+
+    /** Test: Health stays public, and no other actuator endpoint is reachable */
+    @Test
+    void testHealthPublic_CachesEndpointDenied() {
+        String token = jwtTokenUtil.generateToken("marysmith", "RESTAURANT_EMPLOYEE");
+
+        assertEquals(HttpStatus.OK, get("/actuator/health", null).getStatusCode());
+        assertNotEquals(HttpStatus.OK, get("/actuator/caches", token).getStatusCode());
+    }
+}
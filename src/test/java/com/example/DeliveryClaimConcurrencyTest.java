@@ -0,0 +1,86 @@
+package com.example;
+
+import com.exception.ValidationException;
+import com.service.DeliveryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.datasource.hikari.maximum-pool-size=50")
+@SpringBootTest
+class DeliveryClaimConcurrencyTest {
+
+    private static final int CLAIMERS = 200;
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE customer_order SET delivery_person = NULL WHERE id = 1");
+    }
+
+    /** Test: Of hundreds of couriers claiming the same order at once, exactly one wins */
+    @Test
+    void testConcurrentClaimsHaveOneWinner() throws Exception {
+        jdbcTemplate.update("UPDATE customer_order SET delivery_person = NULL, status = 'READY_FOR_DELIVERY' WHERE id = 1");
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLAIMERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> claims = new ArrayList<>();
+        try {
+            for (int i = 0; i < CLAIMERS; i++) {
+                String courier = "courier" + i;
+                claims.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(courier, null, List.of()));
+                    start.await();
+                    try {
+                        deliveryService.assignOrder("1");
+                        return true;
+                    } catch (ValidationException e) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> claim : claims) {
+                if (claim.get(30, TimeUnit.SECONDS)) {
+                    winners++;
+                }
+            }
+            assertEquals(1, winners);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String deliveryPerson = jdbcTemplate.queryForObject(
+                "SELECT delivery_person FROM customer_order WHERE id = 1", String.class);
+        assertNotNull(deliveryPerson);
+        assertTrue(deliveryPerson.startsWith("courier"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example;
+
+import com.service.InventoryReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest
+class InventoryReservationDeadlockTest {
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("UPDATE menu_item SET inventory = 999 WHERE id IN (1, 2)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE menu_item SET inventory = 999 WHERE id IN (1, 2)");
+    }
+
+    private static Map<Long, Integer> lines(long first, long second) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(first, 1);
+        quantities.put(second, 1);
+        return quantities;
+    }
+
+    /** Test: Orders listing the same items in opposite order reserve concurrently without deadlocking */
+    @Test
+    void testCrossedItemOrdersDoNotDeadlock() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Long>> crossed = transactionTemplate.execute(status -> {
+                // This order holds item 1 while the crossed order, listing item 2 first, starts
+                assertEquals(List.of(), inventoryReservationService.reserve(Map.of(1L, 1)));
+                Future<List<Long>> order = executor.submit(() ->
+                        transactionTemplate.execute(s -> inventoryReservationService.reserve(lines(2L, 1L))));
+                awaitLockWait();
+                // Had the crossed order locked item 2 before waiting for item 1, this would deadlock
+                assertEquals(List.of(), inventoryReservationService.reserve(Map.of(2L, 1)));
+                return order;
+            });
+            assertEquals(List.of(), crossed.get(10, TimeUnit.SECONDS)); // A deadlock surfaces here
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(997, jdbcTemplate.queryForObject("SELECT inventory FROM menu_item WHERE id = 1", Integer.class));
+        assertEquals(997, jdbcTemplate.queryForObject("SELECT inventory FROM menu_item WHERE id = 2", Integer.class));
+    }
+
+    /**
+     * Waits until another connection is blocked on a row lock.
+     */
+    private void awaitLockWait() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND wait_event_type = 'Lock'""", Integer.class) == 0) {
+            assertTrue(System.nanoTime() < deadline, "The crossed order never waited for a lock");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example;
+
+import com.model.*;
+import com.service.OrderNumberGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(
+        locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@SpringBootTest
+class OrderBatchInsertTest {
+
+    private static final int ORDER_LINES = 10;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void testTenLineOrderIsInsertedInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            AppUser customer = entityManager.find(AppUser.class, 1L);
+            Address address = entityManager.find(Address.class, 1L);
+            Restaurant restaurant = entityManager.find(Restaurant.class, 1L);
+            MenuItem menuItem = entityManager.find(MenuItem.class, 1L);
+            assertNotNull(menuItem, "Seed data must contain menu item 1");
+
+            List<OrderItem> orderItems = new ArrayList<>();
+            for (int i = 0; i < ORDER_LINES; i++) {
+                orderItems.add(new OrderItem(menuItem, 1, null));
+            }
+            CustomerOrder order = new CustomerOrder(orderNumberGenerator.nextOrderNumber(), customer, orderItems, address, OrderStatus.UNCONFIRMED,
+                    menuItem.getPrice() * ORDER_LINES, restaurant);
+            orderItems.forEach(item -> item.setOrderNumber(order.getOrderNumber()));
+
+            statistics.clear();
+            entityManager.persist(order);
+            entityManager.flush();
+
+            assertEquals(ORDER_LINES + 1, statistics.getEntityInsertCount(), "Order and all lines should be inserted");
+            // At most one sequence call per generator, one order insert and one batched order_items insert.
+            // IDENTITY generation needed a separate statement for every row plus an update per order line.
+            assertTrue(statistics.getPrepareStatementCount() <= 4,
+                    "Expected batched inserts, but " + statistics.getPrepareStatementCount() + " statements were prepared");
+
+            status.setRollbackOnly();
+        });
+    }
+}
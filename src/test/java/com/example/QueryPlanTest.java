@@ -0,0 +1,340 @@
+package com.example;
+
+import com.model.OrderStatus;
+import com.repository.AppUserRepository;
+import com.repository.CustomerOrderRepository;
+import com.repository.MenuItemRepository;
+import com.repository.RestaurantRepository;
+import com.service.DeliveryService;
+import com.service.DispatchPlanner;
+import com.service.OrderExportService;
+import com.utils.CursorUtils;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every filtering repository query against a seeded dataset and EXPLAINs the SQL it sent, with the
+ * values it bound. A case fails when a table is read with a sequential scan, when the index the query is
+ * meant to use does not show up in the plan, or when a primary key scan filters rows instead of an index
+ * narrowing them down.
+ * <p>
+ * The SQL is captured from the JDBC connection while the repository method runs, so it is exactly what
+ * Hibernate (or JdbcTemplate) generated. The tables are seeded with a few thousand extra rows in which
+ * active orders are rare, as in production, and sequential scans are discouraged, so the planner picks an
+ * index whenever one fits. Everything runs in a transaction that is rolled back.
+ */
+@TestPropertySource(locations = "classpath:application-test.properties")
+@SpringBootTest
+class QueryPlanTest {
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+    private static final Pattern INDEX_SCAN = Pattern.compile("Index(?: Only)? Scan(?: Backward)? using (\\w+)|Bitmap Index Scan on (\\w+)");
+    private static final Pattern PKEY_SCAN = Pattern.compile("Index(?: Only)? Scan(?: Backward)? using \\w+_pkey");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CustomerOrderRepository customerOrderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private AppUserRepository appUserRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    /**
+     * Captures the SQL of every statement prepared on the application's connections.
+     */
+    @TestConfiguration
+    static class StatementCaptureConfiguration {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? StatementCapture.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(QueryPlanTest test) throws Exception;
+    }
+
+    private static Arguments query(String name, List<String> expectedIndexes, RepositoryCall call) {
+        return Arguments.of(name, expectedIndexes, call);
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        List<OrderStatus> delivering = List.of(OrderStatus.PICKING_UP, OrderStatus.TRANSPORT);
+        return Stream.of(
+                query("CustomerOrderRepository.findPageBefore", List.of("customer_order_pkey"),
+                        test -> test.customerOrderRepository.findPageBefore(4000, CursorUtils.pageRequest(20))),
+                query("CustomerOrderRepository.findPageByStatusBefore", List.of("idx_customer_order_status_id"),
+                        test -> test.customerOrderRepository.findPageByStatusBefore(OrderStatus.CONFIRMED, 4000,
+                                CursorUtils.pageRequest(20))),
+                query("CustomerOrderRepository.findPageByRestaurantBefore", List.of("idx_customer_order_restaurant_id_id"),
+                        test -> test.customerOrderRepository.findPageByRestaurantBefore(1L, 4000, CursorUtils.pageRequest(20))),
+                query("CustomerOrderRepository.findPageByUsernameBefore",
+                        List.of("app_users_username_key", "idx_customer_order_user_id_id"),
+                        test -> test.customerOrderRepository.findPageByUsernameBefore("johndoe", 4000, CursorUtils.pageRequest(20))),
+                query("CustomerOrderRepository.findPageByDeliveryPersonAndStatusesBefore",
+                        List.of("idx_customer_order_delivery_person_status_id"),
+                        test -> test.customerOrderRepository.findPageByDeliveryPersonAndStatusesBefore("alexjohnson", delivering,
+                                4000, CursorUtils.pageRequest(20))),
+                query("CustomerOrderRepository.findByStatuses", List.of("idx_customer_order_status_id"),
+                        test -> test.customerOrderRepository.findByStatuses(
+                                List.of(OrderStatus.CONFIRMED, OrderStatus.IN_KITCHEN, OrderStatus.READY_FOR_DELIVERY))),
+                query("CustomerOrderRepository.findDeliveryAssignmentsByStatuses", List.of("idx_customer_order_status_id"),
+                        test -> test.customerOrderRepository.findDeliveryAssignmentsByStatuses(
+                                List.of(OrderStatus.READY_FOR_DELIVERY, OrderStatus.PICKING_UP, OrderStatus.TRANSPORT))),
+                query("CustomerOrderRepository.findDeliveryAssignmentsByIds", List.of("customer_order_pkey"),
+                        test -> test.customerOrderRepository.findDeliveryAssignmentsByIds(List.of(103L, 104L, 105L))),
+                query("CustomerOrderRepository.findDtosByIds", List.of("customer_order_pkey", "app_users_pkey"),
+                        test -> test.customerOrderRepository.findDtosByIds(List.of(103L, 104L, 105L))),
+                query("CustomerOrderRepository.findByOrderNumberWithDetails",
+                        List.of("customer_order_order_number_key", "idx_order_items_customer_order_id"),
+                        test -> test.customerOrderRepository.findByOrderNumberWithDetails("ORDER001")),
+                query("CustomerOrderRepository.findById", List.of("customer_order_pkey", "idx_order_items_customer_order_id"),
+                        test -> test.customerOrderRepository.findById(1L)),
+                query("DeliveryService.dispatchOrders", List.of("customer_order_pkey"),
+                        test -> test.deliveryService.dispatchOrders(List.of(new DispatchPlanner.Assignment(1L, "alexjohnson")))),
+                query("OrderExportService.exportOrders",
+                        List.of("idx_customer_order_restaurant_id_id", "idx_order_items_customer_order_id"),
+                        test -> test.orderExportService.exportOrders(1L, null, null, List.of(OrderStatus.DELIVERED), false)
+                                .writeTo(OutputStream.nullOutputStream())),
+                query("MenuItemRepository.findByRestaurant_IdAndIsAvailable", List.of("idx_menu_item_restaurant_id_is_available"),
+                        test -> test.menuItemRepository.findByRestaurant_IdAndIsAvailable(1L, true)),
+                query("MenuItemRepository.findByRestaurant_IdInAndIsAvailableOrderByIdAsc",
+                        List.of("idx_menu_item_restaurant_id_is_available"),
+                        test -> test.menuItemRepository.findByRestaurant_IdInAndIsAvailableOrderByIdAsc(List.of(1L, 2L), true)),
+                query("MenuItemRepository.findByRestaurant_IdAndIdIn", List.of("menu_item_pkey"),
+                        test -> test.menuItemRepository.findByRestaurant_IdAndIdIn(1L, List.of(1L, 2L))),
+                // Run by PostgreSQL itself when a menu item is deleted, to cascade to its order items
+                query("MenuItemRepository.deleteById (order items cascade)", List.of("idx_order_items_menu_item_id"),
+                        test -> test.jdbcTemplate.queryForList("SELECT 1 FROM order_items WHERE menu_item_id = ?", 1L)),
+                query("AppUserRepository.findSnapshotByUsername", List.of("app_users_username_key"),
+                        test -> test.appUserRepository.findSnapshotByUsername("johndoe")),
+                query("AppUserRepository.findUsernamesByRestaurantId", List.of("idx_app_users_restaurant_id"),
+                        test -> test.appUserRepository.findUsernamesByRestaurantId(1L)),
+                query("RestaurantRepository.findIdBySlug", List.of("restaurant_slug_key"),
+                        test -> test.restaurantRepository.findIdBySlug("pizza-place")),
+                query("RestaurantRepository.findBySlug", List.of("restaurant_slug_key", "idx_menu_item_restaurant_id_is_available"),
+                        test -> test.restaurantRepository.findBySlug("pizza-place")),
+                query("RestaurantRepository.findBySlugWithEmployees", List.of("restaurant_slug_key", "idx_app_users_restaurant_id"),
+                        test -> test.restaurantRepository.findBySlugWithEmployees("pizza-place")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void testQueryUsesIndexes(String repositoryMethod, List<String> expectedIndexes, RepositoryCall call) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> plan = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            seed();
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+            List<StatementCapture.Statement> statements = StatementCapture.capture(call, this);
+            assertFalse(statements.isEmpty(), repositoryMethod + " sent no SQL");
+
+            List<String> lines = new ArrayList<>();
+            for (StatementCapture.Statement statement : statements) {
+                lines.add(statement.sql());
+                lines.addAll(jdbcTemplate.query("EXPLAIN " + statement.sql(), statement::bind, (rs, rowNum) -> rs.getString(1)));
+            }
+            return lines;
+        });
+        String explained = String.join("\n", plan);
+
+        List<String> usedIndexes = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            String line = plan.get(i);
+            Matcher seqScan = SEQ_SCAN.matcher(line);
+            assertFalse(seqScan.find(), () -> repositoryMethod + " scans " + seqScan.group(1) + " sequentially:\n" + explained);
+
+            Matcher indexScan = INDEX_SCAN.matcher(line);
+            if (indexScan.find()) {
+                usedIndexes.add(indexScan.group(1) != null ? indexScan.group(1) : indexScan.group(2));
+            }
+            if (PKEY_SCAN.matcher(line).find()) {
+                // A primary key lookup may filter the rows it found; a primary key range or full scan that
+                // filters is walking the table in ID order in place of an index. The scan's own properties
+                // follow it, up to the next plan node.
+                boolean lookup = false;
+                boolean filtered = false;
+                for (int j = i + 1; j < plan.size() && !plan.get(j).contains("->"); j++) {
+                    String property = plan.get(j).trim();
+                    lookup |= property.startsWith("Index Cond:") && property.matches("Index Cond: \\(\\w+ = .*");
+                    filtered |= property.startsWith("Filter:");
+                }
+                assertFalse(filtered && !lookup,
+                        () -> repositoryMethod + " filters a primary key scan instead of using an index:\n" + explained);
+            }
+        }
+        for (String index : expectedIndexes) {
+            assertTrue(usedIndexes.contains(index), () -> repositoryMethod + " does not use " + index + ":\n" + explained);
+        }
+    }
+
+    /**
+     * Adds restaurants, customers, menu items and orders in realistic proportions: every restaurant and
+     * customer owns a small share of the rows, and active orders are a sliver of the delivered history.
+     */
+    private void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO restaurant (id, name, slug)
+                SELECT 100 + g, 'Restaurant ' || g, 'plan-' || g
+                FROM generate_series(2, 49) g""");
+        jdbcTemplate.update("""
+                INSERT INTO app_users (id, username, password, role, full_name)
+                SELECT 100 + g, 'customer' || g, 'x', 'CUSTOMER', 'Customer ' || g
+                FROM generate_series(1, 99) g""");
+        jdbcTemplate.update("""
+                INSERT INTO menu_item (id, name, price, inventory, is_available, restaurant_id)
+                SELECT 100 + g, 'Item ' || g, 5, 10, g % 10 <> 0, CASE WHEN g % 50 < 2 THEN 1 + g % 50 ELSE 100 + g % 50 END
+                FROM generate_series(1, 2000) g""");
+        jdbcTemplate.update("""
+                INSERT INTO customer_order (id, user_id, status, total_price, restaurant_id, order_number, delivery_person)
+                SELECT 100 + g,
+                       CASE WHEN g % 100 = 0 THEN 1 ELSE 100 + g % 100 END,
+                       CASE WHEN g % 500 < 6
+                            THEN (ARRAY['CONFIRMED', 'IN_KITCHEN', 'READY_FOR_DELIVERY', 'PICKING_UP', 'TRANSPORT', 'CANCELED'])[1 + g % 500]
+                            ELSE 'DELIVERED' END,
+                       10,
+                       CASE WHEN g % 50 < 2 THEN 1 + g % 50 ELSE 100 + g % 50 END,
+                       'PLAN' || g,
+                       CASE WHEN g % 500 IN (3, 4) THEN 'alexjohnson'
+                            WHEN g % 500 >= 6 THEN 'courier' || g % 25 END
+                FROM generate_series(1, 5000) g""");
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, customer_order_id, menu_item_id, quantity)
+                SELECT 100 + g, 100 + (g + 1) / 2, 101 + g % 2000, 1
+                FROM generate_series(1, 10000) g""");
+        jdbcTemplate.execute("ANALYZE restaurant, app_users, menu_item, customer_order, order_items");
+    }
+
+    /**
+     * Records the statements prepared on the current thread, with the parameter values bound to them,
+     * while {@link #capture} runs.
+     */
+    static final class StatementCapture {
+
+        private static final ThreadLocal<List<Statement>> CAPTURED = new ThreadLocal<>();
+
+        private StatementCapture() {
+        }
+
+        record Setter(Method method, Object[] args) {
+        }
+
+        record Statement(String sql, List<Setter> setters) {
+
+            /**
+             * Binds the recorded parameter values to another statement with the same placeholders.
+             */
+            void bind(PreparedStatement statement) {
+                for (Setter setter : setters) {
+                    try {
+                        setter.method().invoke(statement, setter.args());
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+
+        static List<Statement> capture(RepositoryCall call, QueryPlanTest test) {
+            List<Statement> statements = new ArrayList<>();
+            CAPTURED.set(statements);
+            try {
+                call.run(test);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                CAPTURED.remove();
+            }
+            return statements;
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) ->
+                    result instanceof Connection connection ? wrap(connection) : result);
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                List<Statement> statements = CAPTURED.get();
+                if (statements == null || !(result instanceof PreparedStatement prepared) || !(args[0] instanceof String sql)) {
+                    return result;
+                }
+                Statement statement = new Statement(sql, new ArrayList<>());
+                statements.add(statement);
+                return proxy(PreparedStatement.class, prepared, (setter, setterArgs, setterResult) -> {
+                    if (setter.getName().startsWith("set") && setterArgs != null && setterArgs.length >= 2
+                            && setterArgs[0] instanceof Integer) {
+                        statement.setters().add(new Setter(setter, setterArgs));
+                    }
+                    return setterResult;
+                });
+            });
+        }
+
+        @FunctionalInterface
+        private interface Interceptor {
+            Object intercept(Method method, Object[] args, Object result) throws Exception;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                return interceptor.intercept(method, args, result);
+            }));
+        }
+    }
+}
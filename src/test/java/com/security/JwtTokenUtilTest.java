@@ -0,0 +1,80 @@
+package com.security;
+
+import com.dto.AppUserSnapshot;
+import com.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenUtilTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(100, nanos::get);
+
+    /** Test: A verified token is parsed once and served from the cache afterwards */
+    @Test
+    void testGetVerifiedAuthentication_Cached() {
+        String token = jwtTokenUtil.generateToken("alexjohnson", "DELIVERY_PERSON");
+
+        Authentication authentication = jwtTokenUtil.getVerifiedAuthentication(token);
+
+        assertNotNull(authentication);
+        assertEquals("alexjohnson", authentication.getName());
+        assertEquals(List.of("ROLE_DELIVERY_PERSON"),
+                authentication.getAuthorities().stream().map(Object::toString).toList());
+        assertSame(authentication, jwtTokenUtil.getVerifiedAuthentication(token));
+    }
+
+    /** Test: A cached token is evicted when it expires */
+    @Test
+    void testGetVerifiedAuthentication_EvictedAtExpiry() {
+        String token = jwtTokenUtil.generateToken("alexjohnson", "DELIVERY_PERSON");
+        Authentication authentication = jwtTokenUtil.getVerifiedAuthentication(token);
+
+        nanos.addAndGet(Duration.ofMinutes(59).toNanos());
+        assertSame(authentication, jwtTokenUtil.getVerifiedAuthentication(token));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        // Evicted from the cache; the token itself is still valid by the wall clock, so it is parsed again
+        assertNotSame(authentication, jwtTokenUtil.getVerifiedAuthentication(token));
+    }
+
+    /** Test: Tokens issued for a user carry its IDs, and tokens issued without them still authenticate */
+    @Test
+    void testGetVerifiedAuthentication_Claims() {
+        AppUserSnapshot user = new AppUserSnapshot(2L, "marysmith", "", UserRole.RESTAURANT_EMPLOYEE, "Mary Smith",
+                3L, 5_000_000_000L);
+
+        AuthenticatedUser principal = (AuthenticatedUser) jwtTokenUtil.getVerifiedAuthentication(
+                jwtTokenUtil.generateToken(user)).getPrincipal();
+
+        assertEquals("marysmith", principal.getUsername());
+        assertEquals(List.of("ROLE_RESTAURANT_EMPLOYEE"), principal.getAuthorities().stream().map(Object::toString).toList());
+        assertEquals(2L, principal.getUserId());
+        assertEquals(3L, principal.getRestaurantId());
+        assertEquals(5_000_000_000L, principal.getAddressId());
+        assertTrue(principal.hasClaims());
+
+        AuthenticatedUser legacy = (AuthenticatedUser) jwtTokenUtil.getVerifiedAuthentication(
+                jwtTokenUtil.generateToken("marysmith", "RESTAURANT_EMPLOYEE")).getPrincipal();
+        assertEquals("marysmith", legacy.getUsername());
+        assertFalse(legacy.hasClaims());
+        assertNull(legacy.getRestaurantId());
+    }
+
+    /** Test: Tampered and malformed tokens are rejected and not cached */
+    @Test
+    void testGetVerifiedAuthentication_Invalid() {
+        String token = jwtTokenUtil.generateToken("johndoe", "CUSTOMER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtTokenUtil.getVerifiedAuthentication(tampered));
+        assertNull(jwtTokenUtil.getVerifiedAuthentication("not-a-token"));
+        assertNull(jwtTokenUtil.getVerifiedAuthentication(""));
+    }
+}
@@ -0,0 +1,228 @@
+package com.service;
+
+import com.dto.CustomerOrderDTO;
+import com.event.OrderClaimedEvent;
+import com.event.OrderStatusChangedEvent;
+import com.model.OrderStatus;
+import com.repository.CustomerOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveOrderBoardTest {
+
+    private static final List<OrderStatus> ACTIVE =
+            List.of(OrderStatus.READY_FOR_DELIVERY, OrderStatus.PICKING_UP, OrderStatus.TRANSPORT);
+
+    @Mock
+    private CustomerOrderRepository customerOrderRepository;
+
+    private ScheduledExecutorService executor;
+    private ActiveOrderBoard activeOrderBoard;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        activeOrderBoard = new ActiveOrderBoard(customerOrderRepository, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        activeOrderBoard.destroy();
+    }
+
+    private static CustomerOrderDTO order(long id, OrderStatus status) {
+        return new CustomerOrderDTO(id, "ORDER" + id, 10.0, status, "Pizza Place", "John Doe", null, null, null, null);
+    }
+
+    private static CustomerOrderRepository.DeliveryAssignment assignment(long id, String deliveryPerson, OrderStatus status) {
+        return new CustomerOrderRepository.DeliveryAssignment() {
+            public Long getId() { return id; }
+            public String getDeliveryPerson() { return deliveryPerson; }
+            public OrderStatus getStatus() { return status; }
+        };
+    }
+
+    private static List<Long> ids(List<CustomerOrderDTO> orders) {
+        return orders.stream().map(CustomerOrderDTO::getId).toList();
+    }
+
+    /** Waits until the board thread has run everything handed to it so far. */
+    private void flush() throws Exception {
+        executor.submit(() -> { }).get();
+    }
+
+    private void load(List<CustomerOrderDTO> orders, List<CustomerOrderRepository.DeliveryAssignment> assignments) {
+        when(customerOrderRepository.findByStatuses(ACTIVE)).thenReturn(orders);
+        when(customerOrderRepository.findDeliveryAssignmentsByStatuses(ACTIVE)).thenReturn(assignments);
+        activeOrderBoard.reconcile();
+    }
+
+    /** Test: Pages merge all requested statuses by descending ID and are read from memory */
+    @Test
+    void testFindPageByStatusesBefore() {
+        load(List.of(order(5, OrderStatus.TRANSPORT), order(4, OrderStatus.READY_FOR_DELIVERY),
+                        order(3, OrderStatus.PICKING_UP), order(1, OrderStatus.READY_FOR_DELIVERY)),
+                List.of(assignment(5, "alexjohnson", OrderStatus.TRANSPORT), assignment(3, "alexjohnson", OrderStatus.PICKING_UP)));
+
+        assertEquals(List.of(5L, 4L, 3L), ids(activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 3)));
+        assertEquals(List.of(3L, 1L), ids(activeOrderBoard.findPageByStatusesBefore(ACTIVE, 4, 3)));
+        assertEquals(List.of(4L, 1L), ids(activeOrderBoard.findPageByStatusesBefore(
+                List.of(OrderStatus.READY_FOR_DELIVERY), Long.MAX_VALUE, 3)));
+        assertEquals(List.of(5L, 3L), ids(activeOrderBoard.findByDeliveryPersonAndStatuses("alexjohnson", ACTIVE)));
+        assertEquals(List.of(), activeOrderBoard.findByDeliveryPersonAndStatuses("someoneelse", ACTIVE));
+        assertEquals(List.of(1L, 4L), activeOrderBoard.findUnassignedOrderIds());
+        assertEquals(Map.of("alexjohnson", 2), activeOrderBoard.getCourierLoads());
+
+        verify(customerOrderRepository, times(1)).findByStatuses(any());
+    }
+
+    /** Test: The board is loaded on first read when startup loading has not happened yet */
+    @Test
+    void testLoadsOnFirstRead() {
+        when(customerOrderRepository.findByStatuses(ACTIVE)).thenReturn(List.of(order(1, OrderStatus.READY_FOR_DELIVERY)));
+        when(customerOrderRepository.findDeliveryAssignmentsByStatuses(ACTIVE)).thenReturn(List.of());
+
+        assertEquals(List.of(1L), ids(activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 10)));
+        assertEquals(List.of(1L), ids(activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 10)));
+        verify(customerOrderRepository, times(1)).findByStatuses(any());
+    }
+
+    /** Test: Claims and status changes move orders between couriers and statuses, and finished orders leave */
+    @Test
+    void testEventsUpdateTheBoard() throws Exception {
+        load(List.of(order(1, OrderStatus.READY_FOR_DELIVERY)), List.of());
+
+        when(customerOrderRepository.findDeliveryAssignmentsByIds(List.of(1L)))
+                .thenReturn(List.of(assignment(1, "alexjohnson", OrderStatus.READY_FOR_DELIVERY)));
+        when(customerOrderRepository.findDtosByIds(Set.of(1L))).thenReturn(List.of(order(1, OrderStatus.READY_FOR_DELIVERY)));
+        activeOrderBoard.onOrderClaimed(new OrderClaimedEvent(1L, "alexjohnson"));
+        flush();
+        assertEquals(List.of(1L), ids(activeOrderBoard.findByDeliveryPersonAndStatuses("alexjohnson", ACTIVE)));
+
+        when(customerOrderRepository.findDeliveryAssignmentsByIds(List.of(1L)))
+                .thenReturn(List.of(assignment(1, "alexjohnson", OrderStatus.PICKING_UP)));
+        when(customerOrderRepository.findDtosByIds(Set.of(1L))).thenReturn(List.of(order(1, OrderStatus.PICKING_UP)));
+        activeOrderBoard.onOrderStatusChanged(new OrderStatusChangedEvent(1L, OrderStatus.READY_FOR_DELIVERY, OrderStatus.PICKING_UP));
+        flush();
+        assertEquals(List.of(), activeOrderBoard.findPageByStatusesBefore(
+                List.of(OrderStatus.READY_FOR_DELIVERY), Long.MAX_VALUE, 10));
+        assertEquals("PICKING_UP", activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 10).get(0).getStatus());
+
+        when(customerOrderRepository.findDeliveryAssignmentsByIds(List.of(1L)))
+                .thenReturn(List.of(assignment(1, "alexjohnson", OrderStatus.DELIVERED)));
+        activeOrderBoard.onOrderStatusChanged(new OrderStatusChangedEvent(1L, OrderStatus.TRANSPORT, OrderStatus.DELIVERED));
+        flush();
+        assertEquals(List.of(), activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 10));
+        assertEquals(List.of(), activeOrderBoard.findByDeliveryPersonAndStatuses("alexjohnson", ACTIVE));
+
+        activeOrderBoard.onOrderStatusChanged(new OrderStatusChangedEvent(2L, OrderStatus.UNCONFIRMED, OrderStatus.CANCELED));
+        flush();
+        verify(customerOrderRepository, never()).findDeliveryAssignmentsByIds(List.of(2L));
+        verify(customerOrderRepository, times(2)).findDtosByIds(Set.of(1L));
+    }
+
+    /** Test: Refreshing many orders reads them together and publishes them in one snapshot */
+    @Test
+    void testRefreshNowReadsOrdersTogether() {
+        load(List.of(order(2, OrderStatus.READY_FOR_DELIVERY), order(1, OrderStatus.READY_FOR_DELIVERY)), List.of());
+        when(customerOrderRepository.findDeliveryAssignmentsByIds(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                assignment(1, "alexjohnson", OrderStatus.READY_FOR_DELIVERY),
+                assignment(2, "bob", OrderStatus.CANCELED),
+                assignment(3, "bob", OrderStatus.READY_FOR_DELIVERY)));
+        when(customerOrderRepository.findDtosByIds(Set.of(1L, 3L))).thenReturn(List.of(
+                order(1, OrderStatus.READY_FOR_DELIVERY), order(3, OrderStatus.READY_FOR_DELIVERY)));
+
+        activeOrderBoard.refreshNow(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(3L, 1L), ids(activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 10)));
+        assertEquals(Map.of("alexjohnson", 1, "bob", 1), activeOrderBoard.getCourierLoads());
+    }
+
+    /** Test: A listener removed while the board thread is busy, before it was added, is never added */
+    @Test
+    void testListenerRemovedBeforeItWasAdded() throws Exception {
+        load(List.of(order(1, OrderStatus.READY_FOR_DELIVERY)), List.of());
+        ActiveOrderBoard.Listener listener = mock(ActiveOrderBoard.Listener.class);
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        activeOrderBoard.addListener(listener);
+        activeOrderBoard.removeListener(listener); // The stream closed before its board was sent
+        busy.countDown();
+        flush();
+
+        assertEquals(0, activeOrderBoard.getListenerCount());
+    }
+
+    /** Test: Reconciliation replaces the board with the database state and reports the drifted orders */
+    @Test
+    void testReconcileHealsDrift() {
+        load(List.of(order(2, OrderStatus.READY_FOR_DELIVERY), order(1, OrderStatus.READY_FOR_DELIVERY)), List.of());
+
+        List<CustomerOrderDTO> changed = new ArrayList<>(List.of(order(3, OrderStatus.READY_FOR_DELIVERY),
+                order(2, OrderStatus.PICKING_UP), order(1, OrderStatus.READY_FOR_DELIVERY)));
+        when(customerOrderRepository.findByStatuses(ACTIVE)).thenReturn(changed);
+        when(customerOrderRepository.findDeliveryAssignmentsByStatuses(ACTIVE))
+                .thenReturn(List.of(assignment(2, "alexjohnson", OrderStatus.PICKING_UP)));
+
+        assertEquals(2, activeOrderBoard.reconcile());
+        assertEquals(List.of(3L, 2L, 1L), ids(activeOrderBoard.findPageByStatusesBefore(ACTIVE, Long.MAX_VALUE, 10)));
+        assertEquals(List.of(2L), ids(activeOrderBoard.findByDeliveryPersonAndStatuses("alexjohnson", ACTIVE)));
+        assertEquals(0, activeOrderBoard.reconcile());
+    }
+
+    /** Test: Listeners receive the board first and then every change, including the ones reconciliation finds */
+    @Test
+    void testListenerReceivesBoardThenChanges() throws Exception {
+        load(List.of(order(2, OrderStatus.READY_FOR_DELIVERY), order(1, OrderStatus.READY_FOR_DELIVERY)), List.of());
+        ActiveOrderBoard.Listener listener = mock(ActiveOrderBoard.Listener.class);
+        activeOrderBoard.addListener(listener);
+        flush();
+        verify(listener).onBoard(argThat(orders -> ids(orders).equals(List.of(2L, 1L))));
+
+        when(customerOrderRepository.findDeliveryAssignmentsByIds(List.of(1L)))
+                .thenReturn(List.of(assignment(1, "alexjohnson", OrderStatus.PICKING_UP)));
+        when(customerOrderRepository.findDtosByIds(Set.of(1L))).thenReturn(List.of(order(1, OrderStatus.PICKING_UP)));
+        activeOrderBoard.onOrderClaimed(new OrderClaimedEvent(1L, "alexjohnson"));
+        flush();
+        verify(listener).onOrderUpdated(argThat(order -> order.getId() == 1L));
+        verify(listener).onOrderClaimed(1L, "alexjohnson");
+
+        when(customerOrderRepository.findByStatuses(ACTIVE)).thenReturn(List.of(
+                order(3, OrderStatus.READY_FOR_DELIVERY), order(1, OrderStatus.PICKING_UP)));
+        when(customerOrderRepository.findDeliveryAssignmentsByStatuses(ACTIVE))
+                .thenReturn(List.of(assignment(1, "alexjohnson", OrderStatus.PICKING_UP)));
+        executor.submit(activeOrderBoard::reconcile).get();
+        verify(listener).onOrderAdded(argThat(order -> order.getId() == 3L));
+        verify(listener).onOrderRemoved(2L);
+
+        activeOrderBoard.removeListener(listener);
+        activeOrderBoard.onOrderStatusChanged(new OrderStatusChangedEvent(3L, OrderStatus.IN_KITCHEN, OrderStatus.READY_FOR_DELIVERY));
+        flush();
+        verifyNoMoreInteractions(listener);
+    }
+}
@@ -1,5 +1,6 @@
 package com.service;
 
+import com.dto.AppUserSnapshot;
 import com.dto.LoginRequestDTO;
 import com.dto.UserRegistrationDTO;
 import com.exception.AuthenticationException;
@@ -38,7 +39,7 @@ class AuthServiceTest {
 
     private UserRegistrationDTO registrationDTO;
     private LoginRequestDTO loginRequest;
-    private AppUser user;
+    private AppUserSnapshot user;
 
     @BeforeEach
     void setUp() {
@@ -52,7 +53,7 @@ class AuthServiceTest {
         loginRequest.setUsername("testuser");
         loginRequest.setPassword("password123");
 
-        user = new AppUser("testuser", "encodedPassword", UserRole.CUSTOMER, "Test User");
+        user = new AppUserSnapshot(1L, "testuser", "encodedPassword", UserRole.CUSTOMER, "Test User", null, 1L);
     }
 
     @Test
@@ -78,11 +79,10 @@ class AuthServiceTest {
 
     @Test
     void testLogin_Success() {
-        when(userService.getUserByUsername("testuser")).thenReturn(user); // FIXED ✅
+        when(userService.getUserSnapshot("testuser")).thenReturn(user); // FIXED ✅
         when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
 
-        when(jwtTokenUtil.generateToken("testuser", UserRole.CUSTOMER.name()))
-                .thenReturn("mockedToken");
+        when(jwtTokenUtil.generateToken(user)).thenReturn("mockedToken");
 
         JwtResponse response = authService.login(loginRequest);
 
@@ -92,7 +92,7 @@ class AuthServiceTest {
 
     @Test
     void testLogin_Fails_WhenUserNotFound() {
-        when(userService.getUserByUsername("testuser")).thenThrow(new ResourceNotFoundException("User not found."));
+        when(userService.getUserSnapshot("testuser")).thenThrow(new ResourceNotFoundException("User not found."));
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> authService.login(loginRequest));
 
@@ -101,7 +101,7 @@ class AuthServiceTest {
 
     @Test
     void testLogin_Fails_WhenPasswordIncorrect() {
-        when(userService.getUserByUsername("testuser")).thenReturn(user);
+        when(userService.getUserSnapshot("testuser")).thenReturn(user);
         when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(false);
 
         Exception exception = assertThrows(AuthenticationException.class, () -> authService.login(loginRequest));
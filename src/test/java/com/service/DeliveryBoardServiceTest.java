@@ -0,0 +1,155 @@
+package com.service;
+
+import com.dto.CustomerOrderDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryBoardServiceTest {
+
+    @Mock
+    private ActiveOrderBoard activeOrderBoard;
+
+    private DeliveryBoardService deliveryBoardService;
+
+    @BeforeEach
+    void setUp() {
+        deliveryBoardService = new DeliveryBoardService(activeOrderBoard,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofSeconds(10), 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryBoardService.destroy();
+    }
+
+    private SseEmitter emitter;
+
+    private ActiveOrderBoard.Listener subscribe(String deliveryPerson) {
+        emitter = deliveryBoardService.subscribe(deliveryPerson);
+        ArgumentCaptor<ActiveOrderBoard.Listener> listener = ArgumentCaptor.forClass(ActiveOrderBoard.Listener.class);
+        verify(activeOrderBoard, atLeastOnce()).addListener(listener.capture());
+        return listener.getValue();
+    }
+
+    /** Test: A new subscriber takes its board from the active order board */
+    @Test
+    void testSubscribe_ListensToTheBoard() {
+        subscribe("alexjohnson");
+        subscribe("alexjohnson");
+        subscribe("bob");
+
+        assertEquals(3, deliveryBoardService.getSubscriberCount());
+        assertEquals(Set.of("alexjohnson", "bob"), deliveryBoardService.getSubscribedCouriers());
+    }
+
+    /** Test: Board changes are sent without blocking the board thread, and a closed stream unsubscribes */
+    @Test
+    void testChangesAreSentOffTheBoardThread() throws Exception {
+        ActiveOrderBoard.Listener listener = subscribe("alexjohnson");
+
+        emitter.complete();
+        listener.onBoard(List.of());
+        listener.onOrderAdded(new CustomerOrderDTO());
+        listener.onOrderClaimed(1L, "alexjohnson");
+        listener.onOrderRemoved(1L);
+
+        verify(activeOrderBoard, timeout(5000)).removeListener(listener);
+        assertEquals(0, deliveryBoardService.getSubscriberCount());
+    }
+
+    /** Test: A subscriber that falls a whole queue behind is dropped, without waiting for its send */
+    @Test
+    void testSlowSubscriberIsDroppedOnOverflow() {
+        ActiveOrderBoard.Listener listener = subscribe("alexjohnson");
+
+        // ResponseBodyEmitter.send synchronizes on the emitter, so holding its lock blocks the writer
+        synchronized (emitter) {
+            for (int i = 0; i < 6; i++) {
+                listener.onOrderRemoved((long) i);
+            }
+            verify(activeOrderBoard).removeListener(listener);
+            assertEquals(0, deliveryBoardService.getSubscriberCount());
+        }
+    }
+
+    /** Test: A subscriber stuck in a send does not delay the others */
+    @Test
+    void testSlowSubscriberDoesNotDelayOthers() {
+        ActiveOrderBoard.Listener slow = subscribe("alexjohnson");
+        SseEmitter slowEmitter = emitter;
+        ActiveOrderBoard.Listener fast = subscribe("bob");
+
+        synchronized (slowEmitter) {
+            slow.onBoard(List.of());
+            emitter.complete();
+            fast.onBoard(List.of());
+
+            verify(activeOrderBoard, timeout(5000)).removeListener(fast);
+            verify(activeOrderBoard, never()).removeListener(slow);
+            assertEquals(1, deliveryBoardService.getSubscriberCount());
+        }
+    }
+
+    /** Test: More stalled subscribers than writer threads do not hold up a healthy one */
+    @Test
+    void testStalledSubscribersDoNotTakeAllWriters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<SseEmitter.SseEventBuilder> received = new LinkedBlockingQueue<>();
+        AtomicInteger created = new AtomicInteger();
+        DeliveryBoardService service = new DeliveryBoardService(activeOrderBoard,
+                Duration.ofMinutes(1), Duration.ofMillis(20), Duration.ofMillis(50), 64, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                boolean stalled = created.incrementAndGet() <= 3;
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (!stalled) {
+                            received.add(builder);
+                            return;
+                        }
+                        try {
+                            release.await(); // A client that stopped reading: the write blocks
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+            }
+        };
+        try {
+            for (String courier : List.of("stalled1", "stalled2", "stalled3", "healthy")) {
+                service.subscribe(courier);
+            }
+            ArgumentCaptor<ActiveOrderBoard.Listener> listeners = ArgumentCaptor.forClass(ActiveOrderBoard.Listener.class);
+            verify(activeOrderBoard, times(4)).addListener(listeners.capture());
+            listeners.getAllValues().forEach(listener -> listener.onBoard(List.of()));
+
+            assertNotNull(received.poll(5, TimeUnit.SECONDS));
+            assertTrue(service.getSubscribedCouriers().contains("healthy"));
+        } finally {
+            release.countDown();
+            service.destroy();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.service;
+
+import com.event.OrderClaimedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchServiceTest {
+
+    @Mock
+    private ActiveOrderBoard activeOrderBoard;
+
+    @Mock
+    private DeliveryBoardService deliveryBoardService;
+
+    @Mock
+    private DeliveryService deliveryService;
+
+    private DispatchService dispatchService() {
+        return new DispatchService(activeOrderBoard, deliveryBoardService, deliveryService, false,
+                Duration.ofSeconds(10), 2, Duration.ofMinutes(15));
+    }
+
+    /** Test: Orders go oldest first to the least loaded courier, and full couriers get none */
+    @Test
+    void testPlan_BalancesLoad() {
+        List<DispatchPlanner.Assignment> plan = DispatchPlanner.plan(List.of(1L, 2L, 3L, 4L, 5L),
+                List.of("carol", "alice", "bob", "dave"), Map.of("alice", 1, "dave", 2), 2);
+
+        assertEquals(List.of(
+                new DispatchPlanner.Assignment(1L, "bob"),
+                new DispatchPlanner.Assignment(2L, "carol"),
+                new DispatchPlanner.Assignment(3L, "alice"),
+                new DispatchPlanner.Assignment(4L, "bob"),
+                new DispatchPlanner.Assignment(5L, "carol")), plan);
+    }
+
+    /** Test: Planning stops when every courier is full */
+    @Test
+    void testPlan_NoCapacity() {
+        assertEquals(List.of(), DispatchPlanner.plan(List.of(1L), List.of("alice"), Map.of("alice", 2), 2));
+        assertEquals(List.of(), DispatchPlanner.plan(List.of(1L), List.of(), Map.of(), 2));
+    }
+
+    /** Test: A round plans for the available couriers, claims in one batch and refreshes the board once */
+    @Test
+    void testDispatch_ClaimsPlannedOrders() {
+        when(activeOrderBoard.findUnassignedOrderIds()).thenReturn(List.of(7L, 8L, 9L));
+        when(activeOrderBoard.getCourierLoads()).thenReturn(Map.of("alexjohnson", 1));
+        when(deliveryBoardService.getSubscribedCouriers()).thenReturn(Set.of("alexjohnson"));
+        List<DispatchPlanner.Assignment> plan = List.of(
+                new DispatchPlanner.Assignment(7L, "bob"),
+                new DispatchPlanner.Assignment(8L, "alexjohnson"),
+                new DispatchPlanner.Assignment(9L, "bob"));
+        when(deliveryService.dispatchOrders(plan)).thenReturn(List.of(7L, 9L)); // 8 was taken by a courier meanwhile
+
+        DispatchService dispatchService = dispatchService();
+        dispatchService.onOrderClaimed(new OrderClaimedEvent(1L, "bob"));
+        assertEquals(2, dispatchService.dispatch());
+        verify(activeOrderBoard).refreshNow(List.of(7L, 9L));
+    }
+
+    /** Test: Couriers are available with an open stream or a recent claim, others get no orders */
+    @Test
+    void testDispatch_OnlyAvailableCouriers() {
+        when(activeOrderBoard.findUnassignedOrderIds()).thenReturn(List.of(7L));
+        when(activeOrderBoard.getCourierLoads()).thenReturn(Map.of());
+        when(deliveryBoardService.getSubscribedCouriers()).thenReturn(Set.of());
+
+        DispatchService dispatchService = dispatchService();
+        assertEquals(0, dispatchService.dispatch());
+        verify(deliveryService, never()).dispatchOrders(any());
+
+        when(deliveryBoardService.getSubscribedCouriers()).thenReturn(Set.of("carol"));
+        dispatchService.onOrderClaimed(new OrderClaimedEvent(1L, "bob"));
+        assertEquals(List.of("bob", "carol"), dispatchService.findAvailableCouriers());
+    }
+
+    /** Test: Without unassigned orders a round does not look up couriers */
+    @Test
+    void testDispatch_NothingToDo() {
+        when(activeOrderBoard.findUnassignedOrderIds()).thenReturn(List.of());
+
+        assertEquals(0, dispatchService().dispatch());
+        verifyNoInteractions(deliveryBoardService, deliveryService);
+        verify(activeOrderBoard, never()).refreshNow(any());
+    }
+}
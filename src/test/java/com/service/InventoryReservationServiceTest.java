@@ -0,0 +1,89 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryReservationServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private InventoryReservationService inventoryReservationService;
+
+    /** Test: All lines are sent as one batch and none fail when every update hits a row */
+    @Test
+    void testReserve_AllLinesReserved() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 2);
+        quantities.put(2L, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        List<Long> failed = inventoryReservationService.reserve(quantities);
+
+        assertTrue(failed.isEmpty());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batchArgs.capture());
+        assertEquals(2, batchArgs.getValue().size());
+        assertArrayEquals(new Object[]{2, 1L, 2}, batchArgs.getValue().get(0));
+        assertArrayEquals(new Object[]{1, 2L, 1}, batchArgs.getValue().get(1));
+    }
+
+    /** Test: Lines whose conditional update matched no row are reported as failed */
+    @Test
+    void testReserve_ReportsOutOfStockLines() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 2);
+        quantities.put(2L, 50);
+        quantities.put(3L, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, 1});
+
+        List<Long> failed = inventoryReservationService.reserve(quantities);
+
+        assertEquals(List.of(2L), failed);
+    }
+
+    /** Test: Lines are updated in ascending ID order whatever the order's line order, and failures map back to their IDs */
+    @Test
+    void testReserve_SortsByMenuItemId() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(3L, 1);
+        quantities.put(1L, 2);
+        quantities.put(2L, 50);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0, 1});
+
+        List<Long> failed = inventoryReservationService.reserve(quantities);
+
+        assertEquals(List.of(2L), failed);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batchArgs.capture());
+        assertEquals(List.of(1L, 2L, 3L), batchArgs.getValue().stream().map(args -> args[1]).toList());
+    }
+
+    /** Test: An empty order does not touch the database */
+    @Test
+    void testReserve_EmptyOrder() {
+        List<Long> failed = inventoryReservationService.reserve(Map.of());
+
+        assertTrue(failed.isEmpty());
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,231 @@
+package com.service;
+
+import com.dto.MenuItemDTO;
+import com.exception.ResourceNotFoundException;
+import com.model.MenuItem;
+import com.model.Restaurant;
+import com.repository.RestaurantRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuCacheServiceTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private Clock wallClock;
+
+    private MenuCacheService menuCacheService;
+
+    private Restaurant restaurant;
+
+    private MenuItem menuItem;
+
+    @BeforeEach
+    void setUp() {
+        menuCacheService = newMenuCacheService();
+
+        restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setSlug("pizza-place");
+        menuItem = new MenuItem("Margherita", "Classic", 9.5, "Tomato, mozzarella", restaurant, 10);
+        menuItem.setId(1L);
+        restaurant.setMenuItems(List.of(menuItem));
+    }
+
+    private MenuCacheService newMenuCacheService() {
+        return new MenuCacheService(restaurantRepository,
+                new ConcurrentMapCacheManager(MenuCacheService.PUBLIC_MENUS, MenuCacheService.EMPLOYEE_MENUS),
+                Duration.ofMinutes(10), wallClock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /** Test: A second request for the same menu is served from the cache */
+    @Test
+    void testGetMenu_CachesPerSlug() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+
+        List<MenuItemDTO> first = menuCacheService.getMenu("pizza-place", false);
+        List<MenuItemDTO> second = menuCacheService.getMenu("pizza-place", false);
+
+        assertSame(first, second);
+        assertNull(first.get(0).getInventory());
+        verify(restaurantRepository, times(1)).findBySlug("pizza-place");
+    }
+
+    /** Test: The employee variant is cached separately and includes inventory */
+    @Test
+    void testGetMenu_EmployeeVariantIncludesInventory() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+
+        menuCacheService.getMenu("pizza-place", false);
+        List<MenuItemDTO> employeeMenu = menuCacheService.getMenu("pizza-place", true);
+
+        assertEquals(10, employeeMenu.get(0).getInventory());
+        verify(restaurantRepository, times(2)).findBySlug("pizza-place");
+    }
+
+    /** Test: A menu change reloads both variants */
+    @Test
+    void testInvalidateMenu_ReloadsBothVariants() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+        menuCacheService.getMenu("pizza-place", false);
+        menuCacheService.getMenu("pizza-place", true);
+
+        menuCacheService.invalidateMenu(1L);
+        menuCacheService.getMenu("pizza-place", false);
+        menuCacheService.getMenu("pizza-place", true);
+
+        verify(restaurantRepository, times(4)).findBySlug("pizza-place");
+    }
+
+    /** Test: An inventory change only reloads the employee variant */
+    @Test
+    void testInvalidateInventory_KeepsPublicVariant() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+        menuCacheService.getMenu("pizza-place", false);
+        menuCacheService.getMenu("pizza-place", true);
+
+        menuCacheService.invalidateInventory(1L);
+        menuCacheService.getMenu("pizza-place", false);
+        menuCacheService.getMenu("pizza-place", true);
+
+        verify(restaurantRepository, times(3)).findBySlug("pizza-place");
+    }
+
+    /** Test: Invalidation inside a transaction only takes effect once it commits */
+    @Test
+    void testInvalidateMenu_WaitsForCommit() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+        menuCacheService.getMenu("pizza-place", false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        menuCacheService.invalidateMenu(1L);
+        menuCacheService.getMenu("pizza-place", false);
+        verify(restaurantRepository, times(1)).findBySlug("pizza-place");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        menuCacheService.getMenu("pizza-place", false);
+        verify(restaurantRepository, times(2)).findBySlug("pizza-place");
+    }
+
+    /** Test: A menu loaded before a concurrent change is not served from the cache afterwards */
+    @Test
+    void testGetMenu_IgnoresStalePut() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenAnswer(invocation -> {
+            menuCacheService.invalidateMenu(1L); // A writer commits while this reader is loading
+            return Optional.of(restaurant);
+        }).thenReturn(Optional.of(restaurant));
+
+        menuCacheService.getMenu("pizza-place", false);
+        menuCacheService.getMenu("pizza-place", false);
+        menuCacheService.getMenu("pizza-place", false);
+
+        verify(restaurantRepository, times(2)).findBySlug("pizza-place");
+    }
+
+    /** Test: An unknown slug is reported and nothing is cached */
+    @Test
+    void testGetMenu_RestaurantNotFound() {
+        when(restaurantRepository.findBySlug("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> menuCacheService.getMenu("unknown", false));
+        assertThrows(ResourceNotFoundException.class, () -> menuCacheService.getMenu("unknown", false));
+        verify(restaurantRepository, times(2)).findBySlug("unknown");
+    }
+
+    /** Test: Instances that loaded the same rows hand out the same ETag, answered from memory once cached */
+    @Test
+    void testGetMenuETag_DerivedFromContent() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+        MenuCacheService otherInstance = newMenuCacheService();
+
+        String publicTag = menuCacheService.getMenuETag("pizza-place", false);
+        assertTrue(publicTag.startsWith("\"") && publicTag.endsWith("\""));
+        assertEquals(publicTag, otherInstance.getMenuETag("pizza-place", false));
+        assertNotEquals(publicTag, menuCacheService.getMenuETag("pizza-place", true));
+
+        assertEquals(publicTag, menuCacheService.getMenuETag("pizza-place", false));
+        verify(restaurantRepository, times(3)).findBySlug("pizza-place");
+    }
+
+    /** Test: The menu ETag only changes when the content of the variant it describes changes */
+    @Test
+    void testGetMenuETag_ChangesWithContent() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+        String publicTag = menuCacheService.getMenuETag("pizza-place", false);
+        String employeeTag = menuCacheService.getMenuETag("pizza-place", true);
+
+        menuItem.setInventory(5);
+        menuCacheService.invalidateInventory(1L);
+        assertEquals(publicTag, menuCacheService.getMenuETag("pizza-place", false));
+        assertNotEquals(employeeTag, menuCacheService.getMenuETag("pizza-place", true));
+
+        menuCacheService.invalidateMenu(1L); // Reloaded, but nothing shown has changed
+        assertEquals(publicTag, menuCacheService.getMenuETag("pizza-place", false));
+
+        menuItem.setPrice(10.5);
+        menuCacheService.invalidateMenu(1L);
+        assertNotEquals(publicTag, menuCacheService.getMenuETag("pizza-place", false));
+    }
+
+    /** Test: The tag and the items of a tagged menu come from the same cached copy */
+    @Test
+    void testGetTaggedMenu_MatchesCachedMenu() {
+        when(restaurantRepository.findBySlug("pizza-place")).thenReturn(Optional.of(restaurant));
+
+        MenuCacheService.TaggedMenu menu = menuCacheService.getTaggedMenu("pizza-place", false);
+
+        assertSame(menu.items(), menuCacheService.getMenu("pizza-place", false));
+        assertEquals(menu.eTag(), menuCacheService.getMenuETag("pizza-place", false));
+        verify(restaurantRepository, times(1)).findBySlug("pizza-place");
+    }
+
+    /** Test: The listing ETag changes with a menu change of any restaurant */
+    @Test
+    void testGetCatalogETag_ChangesWithAnyMenu() {
+        String publicTag = menuCacheService.getCatalogETag(false);
+        String employeeTag = menuCacheService.getCatalogETag(true);
+
+        menuCacheService.invalidateInventory(2L);
+        assertEquals(publicTag, menuCacheService.getCatalogETag(false));
+        assertNotEquals(employeeTag, menuCacheService.getCatalogETag(true));
+
+        menuCacheService.invalidateMenu(2L);
+        assertNotEquals(publicTag, menuCacheService.getCatalogETag(false));
+    }
+
+    /** Test: The listing ETag rolls over after its maximum age, even without a change on this instance */
+    @Test
+    void testGetCatalogETag_RollsOverAfterMaxAge() {
+        when(wallClock.millis()).thenReturn(0L, Duration.ofMinutes(9).toMillis(), Duration.ofMinutes(10).toMillis());
+
+        String tag = menuCacheService.getCatalogETag(false);
+
+        assertEquals(tag, menuCacheService.getCatalogETag(false));
+        assertNotEquals(tag, menuCacheService.getCatalogETag(false));
+    }
+}
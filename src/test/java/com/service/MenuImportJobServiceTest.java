@@ -0,0 +1,111 @@
+package com.service;
+
+import com.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuImportJobServiceTest {
+
+    @Mock
+    private MenuImportService menuImportService;
+
+    private ThreadPoolTaskExecutor executor;
+    private MenuImportJobService menuImportJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        menuImportJobService = new MenuImportJobService(menuImportService, executor, Duration.ofHours(1), Clock.systemUTC());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "menu.csv", "text/csv", content.getBytes());
+    }
+
+    private static void awaitFinished(MenuImportJobService.MenuImportJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && job.getFinishedAt() == null; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    /** Test: A queued job reads the spooled upload in the background and reports the import result */
+    @Test
+    void testSubmit_RunsImportInBackground() throws Exception {
+        when(menuImportService.importMenu(any(Reader.class), eq(1L), any())).thenAnswer(invocation -> {
+            String content = new BufferedReader(invocation.getArgument(0, Reader.class)).readLine();
+            invocation.getArgument(2, MenuImportService.ProgressListener.class).onProgress(2, 1);
+            return new MenuImportService.MenuImportResult(2, 1, 0, 0, 1, List.of("Row 2: " + content));
+        });
+
+        MenuImportJobService.MenuImportJob job = menuImportJobService.submit(csv("name,price\n"), 1L);
+        awaitFinished(job);
+
+        assertSame(job, menuImportJobService.getJob(job.getId(), 1L));
+        assertEquals(MenuImportJobService.JobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getRowsProcessed());
+        assertEquals(1, job.getRowsFailed());
+        assertEquals(List.of("Row 2: name,price"), job.getErrors());
+        assertTrue(job.getRowsPerSecond() > 0);
+    }
+
+    /** Test: Jobs are only visible to their own restaurant */
+    @Test
+    void testGetJob_OtherRestaurant() throws Exception {
+        when(menuImportService.importMenu(any(Reader.class), eq(1L), any()))
+                .thenReturn(new MenuImportService.MenuImportResult(0, 0, 0, 0, 0, List.of()));
+
+        MenuImportJobService.MenuImportJob job = menuImportJobService.submit(csv("name,price\n"), 1L);
+        awaitFinished(job);
+
+        assertThrows(ResourceNotFoundException.class, () -> menuImportJobService.getJob(job.getId(), 2L));
+        assertThrows(ResourceNotFoundException.class, () -> menuImportJobService.getJob("unknown", 1L));
+    }
+
+    /** Test: A job that does not fit the executor is rejected and not registered */
+    @Test
+    void testSubmit_RejectedWhenBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(menuImportService.importMenu(any(Reader.class), eq(1L), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new MenuImportService.MenuImportResult(0, 0, 0, 0, 0, List.of());
+        });
+
+        MenuImportJobService.MenuImportJob running = menuImportJobService.submit(csv("name,price\n"), 1L);
+
+        assertThrows(TaskRejectedException.class, () -> menuImportJobService.submit(csv("name,price\n"), 1L));
+        release.countDown();
+        awaitFinished(running);
+        assertEquals(MenuImportJobService.JobStatus.COMPLETED, running.getStatus());
+        verify(menuImportService, times(1)).importMenu(any(Reader.class), eq(1L), any());
+    }
+}
@@ -0,0 +1,161 @@
+package com.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuImportServiceTest {
+
+    @Mock
+    private MenuCacheService menuCacheService;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:menuimport;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate.execute("CREATE SEQUENCE menu_item_seq START WITH 1000 INCREMENT BY 50");
+        // A short name column lets the database reject a row that passed parsing
+        jdbcTemplate.execute("""
+                CREATE TABLE menu_item (id INT PRIMARY KEY, name VARCHAR(40) NOT NULL, description VARCHAR(255),
+                price DECIMAL(10, 2) NOT NULL, ingredients VARCHAR(255), inventory INT NOT NULL,
+                is_available BOOLEAN DEFAULT TRUE, restaurant_id INT)""");
+        jdbcTemplate.update("""
+                INSERT INTO menu_item VALUES
+                (1, 'Margherita', 'Classic', 8.5, NULL, 10, FALSE, 1),
+                (2, 'Salmon Nigiri', 'Fresh', 6, NULL, 10, TRUE, 2)""");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private MenuImportService service(int chunkSize) {
+        return new MenuImportService(jdbcTemplate, transactionManager, menuCacheService, chunkSize);
+    }
+
+    /** Test: Rows with an ID of the restaurant update that item, other rows are inserted with sequence IDs */
+    @Test
+    void testImportMenu_UpdatesAndInserts() {
+        String csv = """
+                id,name,description,price,inventory
+                1,Margherita XL,Bigger,11.5,20
+                2,Stolen Nigiri,,7,5
+                ,Pepperoni,,9.5,
+                """;
+
+        MenuImportService.MenuImportResult result = service(1000).importMenu(new StringReader(csv), 1L);
+
+        assertEquals(new MenuImportService.MenuImportResult(3, 2, 1, 0, 0, List.of()), result);
+        Map<String, Object> updated = jdbcTemplate.queryForMap("SELECT * FROM menu_item WHERE id = 1");
+        assertEquals("Margherita XL", updated.get("name"));
+        assertEquals(20, updated.get("inventory"));
+        assertEquals(false, updated.get("is_available")); // Availability is not part of the import
+        assertEquals("Salmon Nigiri", jdbcTemplate.queryForObject("SELECT name FROM menu_item WHERE id = 2", String.class));
+        assertEquals(List.of(951, 952), jdbcTemplate.queryForList(
+                "SELECT id FROM menu_item WHERE restaurant_id = 1 AND id > 2 ORDER BY id", Integer.class));
+        verify(menuCacheService).invalidateMenu(1L);
+    }
+
+    /** Test: Invalid rows are reported by row number and do not stop the import */
+    @Test
+    void testImportMenu_ReportsInvalidRows() {
+        String csv = """
+                name,price,inventory
+                ,5,1
+                Calzone,abc,1
+                Calzone,0,1
+                Calzone,9,-1
+                Calzone,9,1
+                """;
+
+        MenuImportService.MenuImportResult result = service(1000).importMenu(new StringReader(csv), 1L);
+
+        assertEquals(1, result.inserted());
+        assertEquals(4, result.failed());
+        assertEquals(List.of(
+                "Row 1: Missing or empty 'name' field.",
+                "Row 2: Invalid price: abc",
+                "Row 3: Menu item price must be greater than 0.",
+                "Row 4: Inventory cannot be negative."), result.errors());
+    }
+
+    /** Test: Chunks commit separately and a chunk the database rejects is retried row by row */
+    @Test
+    void testImportMenu_IsolatesRejectedRowInChunk() {
+        StringBuilder csv = new StringBuilder("name,price\n");
+        for (int i = 1; i <= 7; i++) {
+            csv.append(i == 4 ? "A name that is too long for the name column" : "Item " + i).append(",5\n");
+        }
+
+        MenuImportService.MenuImportResult result = service(3).importMenu(new StringReader(csv.toString()), 1L);
+
+        assertEquals(6, result.inserted());
+        assertEquals(1, result.failed());
+        assertTrue(result.errors().get(0).startsWith("Row 4: "));
+        assertEquals(6, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM menu_item WHERE name LIKE 'Item %'", Integer.class));
+    }
+
+    /** Test: Rows are matched by normalized name and only changed items are written */
+    @Test
+    void testImportMenu_WritesOnlyChangedRows() {
+        String csv = """
+                name,description,price,inventory
+                Margherita,Classic,8.50,10
+                """;
+
+        MenuImportService.MenuImportResult result = service(1000).importMenu(new StringReader(csv), 1L);
+
+        assertEquals(new MenuImportService.MenuImportResult(1, 0, 0, 1, 0, List.of()), result);
+        assertEquals("Margherita", jdbcTemplate.queryForObject("SELECT name FROM menu_item WHERE id = 1", String.class));
+        verify(menuCacheService, never()).invalidateMenu(any());
+
+        result = service(1000).importMenu(new StringReader(csv.replace("Margherita,Classic,8.50,10",
+                "\"margherita  \",Classic,8.50,12")), 1L);
+
+        assertEquals(new MenuImportService.MenuImportResult(1, 0, 1, 0, 0, List.of()), result);
+        assertEquals(Map.of("name", "margherita", "inventory", 12),
+                jdbcTemplate.queryForMap("SELECT name, inventory FROM menu_item WHERE id = 1"));
+        verify(menuCacheService).invalidateMenu(1L);
+    }
+
+    /** Test: An available column changes availability, and a second row for the same item is rejected */
+    @Test
+    void testImportMenu_AvailabilityAndDuplicates() {
+        String csv = """
+                id,name,description,price,inventory,available
+                1,Margherita,Classic,8.5,10,yes
+                ,margherita,Classic,8.5,10,no
+                ,Calzone,,9,1,no
+                ,Calzone,,9,1,no
+                """;
+
+        MenuImportService.MenuImportResult result = service(1000).importMenu(new StringReader(csv), 1L);
+
+        assertEquals(new MenuImportService.MenuImportResult(4, 1, 1, 0, 2,
+                List.of("Row 2: Duplicate of row 1.", "Row 4: Duplicate of row 3.")), result);
+        assertEquals(true, jdbcTemplate.queryForObject("SELECT is_available FROM menu_item WHERE id = 1", Boolean.class));
+        assertEquals(false, jdbcTemplate.queryForObject(
+                "SELECT is_available FROM menu_item WHERE name = 'Calzone'", Boolean.class));
+    }
+}
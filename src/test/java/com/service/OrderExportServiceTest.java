@@ -0,0 +1,92 @@
+package com.service;
+
+import com.model.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderExportServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:export;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(2);
+        orderExportService = new OrderExportService(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+
+        jdbcTemplate.execute("CREATE TABLE app_users (id INT PRIMARY KEY, full_name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE menu_item (id INT PRIMARY KEY, name VARCHAR(255))");
+        jdbcTemplate.execute("""
+                CREATE TABLE customer_order (id INT PRIMARY KEY, user_id INT, restaurant_id INT, status VARCHAR(255),
+                total_price DECIMAL(10, 2), order_number VARCHAR(255), created_at TIMESTAMP)""");
+        jdbcTemplate.execute("CREATE TABLE order_items (id INT PRIMARY KEY, customer_order_id INT, menu_item_id INT, quantity INT)");
+
+        jdbcTemplate.update("INSERT INTO app_users VALUES (1, 'John Doe'), (2, 'Doe, Jane')");
+        jdbcTemplate.update("INSERT INTO menu_item VALUES (1, 'Margherita'), (2, 'Pepperoni')");
+        jdbcTemplate.update("""
+                INSERT INTO customer_order VALUES
+                (1, 1, 1, 'DELIVERED', 31.9, 'ORDER001', TIMESTAMP '2024-05-01 12:00:00'),
+                (2, 2, 1, 'CONFIRMED', 10, 'ORDER002', TIMESTAMP '2024-05-02 18:30:00'),
+                (3, 1, 1, 'CONFIRMED', 0, 'ORDER003', TIMESTAMP '2024-05-03 09:15:00'),
+                (4, 1, 2, 'CONFIRMED', 12, 'ORDER004', TIMESTAMP '2024-05-02 10:00:00')""");
+        jdbcTemplate.update("INSERT INTO order_items VALUES (1, 1, 1, 2), (2, 1, 2, 1), (3, 2, 2, 1), (4, 4, 1, 1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private String export(LocalDateTime from, LocalDateTime to, List<OrderStatus> statuses) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(1L, from, to, statuses, false).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /** Test: Every order becomes one line with its items joined, across fetch-size boundaries */
+    @Test
+    void testExportOrders_OneLinePerOrder() throws IOException {
+        assertEquals(OrderExportService.HEADER
+                        + "ORDER001,31.90,DELIVERED,John Doe,Margherita x2; Pepperoni x1,2024-05-01T12:00\n"
+                        + "ORDER002,10.00,CONFIRMED,\"Doe, Jane\",Pepperoni x1,2024-05-02T18:30\n"
+                        + "ORDER003,0.00,CONFIRMED,John Doe,No items,2024-05-03T09:15\n",
+                export(null, null, null));
+    }
+
+    /** Test: Date and status filters are applied in the query */
+    @Test
+    void testExportOrders_Filters() throws IOException {
+        String csv = export(LocalDateTime.parse("2024-05-02T00:00"), LocalDateTime.parse("2024-05-04T00:00"),
+                List.of(OrderStatus.CONFIRMED));
+
+        assertEquals(List.of("ORDER002", "ORDER003"), csv.lines().skip(1).map(line -> line.split(",")[0]).toList());
+        assertEquals(OrderExportService.HEADER, export(null, null, List.of(OrderStatus.CANCELED)));
+    }
+
+    /** Test: The gzip variant decompresses to the same CSV */
+    @Test
+    void testExportOrders_Gzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(1L, null, null, List.of(), true).writeTo(out);
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(export(null, null, List.of()), new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.service;
+
+import com.dto.MenuItemDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.MenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrerenderedMenuServiceTest {
+
+    @Mock
+    private MenuCacheService menuCacheService;
+
+    private PrerenderedMenuService prerenderedMenuService;
+
+    private List<MenuItemDTO> menu;
+
+    @BeforeEach
+    void setUp() {
+        prerenderedMenuService = new PrerenderedMenuService(menuCacheService, new ObjectMapper(),
+                new ConcurrentMapCacheManager(PrerenderedMenuService.PUBLIC_MENU_JSON), true, true);
+
+        MenuItem menuItem = new MenuItem("Margherita", 9.5);
+        menuItem.setId(1L);
+        menu = List.of(new MenuItemDTO(menuItem, false));
+    }
+
+    /** Test: The menu is serialized once and reused while its content is unchanged */
+    @Test
+    void testGetRenderedMenu_SerializesOncePerVersion() {
+        when(menuCacheService.getTaggedMenu("pizza-place", false))
+                .thenReturn(new MenuCacheService.TaggedMenu("\"m-a1\"", menu));
+
+        PrerenderedMenuService.RenderedMenu first = prerenderedMenuService.getRenderedMenu("pizza-place");
+        PrerenderedMenuService.RenderedMenu second = prerenderedMenuService.getRenderedMenu("pizza-place");
+
+        assertSame(first, second);
+        assertEquals("{\"success\":true,\"message\":\"Success\",\"data\":[{\"id\":1,\"name\":\"Margherita\",\"price\":9.5,\"available\":true}]}",
+                new String(first.json(), StandardCharsets.UTF_8));
+        assertEquals("\"m-a1-gz\"", first.gzipETag());
+    }
+
+    /** Test: A menu with new content is rendered again */
+    @Test
+    void testGetRenderedMenu_RebuildsOnVersionChange() {
+        when(menuCacheService.getTaggedMenu("pizza-place", false)).thenReturn(
+                new MenuCacheService.TaggedMenu("\"m-a1\"", menu), new MenuCacheService.TaggedMenu("\"m-b2\"", menu));
+
+        PrerenderedMenuService.RenderedMenu first = prerenderedMenuService.getRenderedMenu("pizza-place");
+        PrerenderedMenuService.RenderedMenu second = prerenderedMenuService.getRenderedMenu("pizza-place");
+
+        assertNotSame(first, second);
+        assertEquals("\"m-b2\"", second.eTag());
+    }
+
+    /** Test: Clients accepting gzip get the precompressed copy under its own ETag */
+    @Test
+    void testGetPublicMenuResponse_Gzip() throws IOException {
+        when(menuCacheService.getMenuETag("pizza-place", false)).thenReturn("\"m-a1\"");
+        when(menuCacheService.getTaggedMenu("pizza-place", false))
+                .thenReturn(new MenuCacheService.TaggedMenu("\"m-a1\"", menu));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/restaurants/pizza-place/menu");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+
+        ResponseEntity<byte[]> response = prerenderedMenuService.getPublicMenuResponse("pizza-place",
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst("Content-Encoding"));
+        assertEquals("\"m-a1-gz\"", response.getHeaders().getETag());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertArrayEquals(prerenderedMenuService.getRenderedMenu("pizza-place").json(), gzip.readAllBytes());
+        }
+    }
+
+    /** Test: A matching If-None-Match is answered with 304 without rendering the menu */
+    @Test
+    void testGetPublicMenuResponse_NotModified() {
+        when(menuCacheService.getMenuETag("pizza-place", false)).thenReturn("\"m-a1\"");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/restaurants/pizza-place/menu");
+        request.addHeader("If-None-Match", "\"m-a1\"");
+
+        ResponseEntity<byte[]> response = prerenderedMenuService.getPublicMenuResponse("pizza-place",
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(menuCacheService, never()).getTaggedMenu(anyString(), anyBoolean());
+    }
+}
@@ -0,0 +1,72 @@
+package com.service;
+
+import com.repository.AppUserRepository;
+import com.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantMembershipIndexTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private AppUserRepository appUserRepository;
+
+    private RestaurantMembershipIndex membershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        membershipIndex = new RestaurantMembershipIndex(restaurantRepository, appUserRepository, Duration.ofMinutes(5));
+    }
+
+    /** Test: Slugs and employees are loaded once and answered from memory afterwards */
+    @Test
+    void testFindRestaurantIdForEmployee_Cached() {
+        when(restaurantRepository.findIdBySlug("pizza-place")).thenReturn(Optional.of(1L));
+        when(appUserRepository.findUsernamesByRestaurantId(1L)).thenReturn(List.of("marysmith"));
+
+        assertEquals(1L, membershipIndex.findRestaurantIdForEmployee("marysmith", "pizza-place"));
+        assertEquals(1L, membershipIndex.findRestaurantIdForEmployee("marysmith", "pizza-place"));
+        assertNull(membershipIndex.findRestaurantIdForEmployee("pizzachef", "pizza-place"));
+
+        verify(restaurantRepository, times(1)).findIdBySlug("pizza-place");
+        verify(appUserRepository, times(1)).findUsernamesByRestaurantId(1L);
+    }
+
+    /** Test: Unknown slugs are not cached */
+    @Test
+    void testUnknownSlugNotCached() {
+        when(restaurantRepository.findIdBySlug("unknown")).thenReturn(Optional.empty());
+
+        assertNull(membershipIndex.findRestaurantId("unknown"));
+        assertNull(membershipIndex.findRestaurantId("unknown"));
+        verify(restaurantRepository, times(2)).findIdBySlug("unknown");
+    }
+
+    /** Test: A removed employee loses access once the cached employees expire */
+    @Test
+    void testRemovedEmployeeExpires() throws InterruptedException {
+        membershipIndex = new RestaurantMembershipIndex(restaurantRepository, appUserRepository, Duration.ofMillis(50));
+        when(appUserRepository.findUsernamesByRestaurantId(1L))
+                .thenReturn(List.of("marysmith", "formeremployee"), List.of("marysmith"));
+
+        assertTrue(membershipIndex.isEmployee(1L, "formeremployee"));
+        assertTrue(membershipIndex.isEmployee(1L, "formeremployee"));
+
+        Thread.sleep(100);
+        assertFalse(membershipIndex.isEmployee(1L, "formeremployee"));
+        verify(appUserRepository, times(2)).findUsernamesByRestaurantId(1L);
+    }
+}
@@ -0,0 +1,185 @@
+package com.service;
+
+import com.dto.CursorPage;
+import com.dto.CustomerOrderDTO;
+import com.dto.RestaurantDTO;
+import com.exception.ValidationException;
+import com.model.CustomerOrder;
+import com.model.MenuItem;
+import com.model.OrderStatus;
+import com.model.Restaurant;
+import com.repository.CustomerOrderRepository;
+import com.repository.MenuItemRepository;
+import com.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.utils.CursorUtils;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantServiceTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private CustomerOrderRepository customerOrderRepository;
+
+    @Mock
+    private RestaurantMembershipIndex membershipIndex;
+
+    @Mock
+    private MenuCacheService menuCacheService;
+
+    @InjectMocks
+    private RestaurantService restaurantService;
+
+    private static Restaurant restaurant(long id, String name) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName(name);
+        restaurant.setSlug(name.toLowerCase().replace(' ', '-'));
+        return restaurant;
+    }
+
+    private static MenuItem menuItem(long id, Restaurant restaurant) {
+        MenuItem menuItem = new MenuItem("Item " + id, "", 5.0, null, restaurant);
+        menuItem.setId(id);
+        return menuItem;
+    }
+
+    private static CustomerOrderDTO order(long id) {
+        return new CustomerOrderDTO(id, "ORD-" + id, 10.0, OrderStatus.READY_FOR_DELIVERY, "Pizza Place",
+                "John Doe", "Customer Lane", "123", "12345", "City");
+    }
+
+    /** Test: Menu items of all restaurants on the page are loaded with one query and grouped per restaurant */
+    @Test
+    void testGetAllRestaurantsWithMenu_GroupsItemsFromSingleQuery() {
+        Restaurant pizza = restaurant(1L, "Pizza Place");
+        Restaurant sushi = restaurant(2L, "Sushi World");
+        Restaurant empty = restaurant(3L, "Empty Kitchen");
+        when(restaurantRepository.findAllBy(any(Pageable.class))).thenReturn(List.of(pizza, sushi, empty));
+        when(menuItemRepository.findByRestaurant_IdInAndIsAvailableOrderByIdAsc(List.of(1L, 2L, 3L), true))
+                .thenReturn(List.of(menuItem(10L, pizza), menuItem(11L, sushi), menuItem(12L, pizza)));
+
+        List<RestaurantDTO> result = restaurantService.getAllRestaurantsWithMenu(null, 0, 50);
+
+        assertEquals(3, result.size());
+        assertEquals(2, result.get(0).getMenuItems().size());
+        assertEquals(1, result.get(1).getMenuItems().size());
+        assertTrue(result.get(2).getMenuItems().isEmpty());
+        assertNull(result.get(0).getMenuItems().get(0).getInventory());
+        verify(menuItemRepository, times(1)).findByRestaurant_IdInAndIsAvailableOrderByIdAsc(anyCollection(), eq(true));
+        verifyNoMoreInteractions(menuItemRepository);
+    }
+
+    /** Test: A name filter uses the filtered query and the page size is capped */
+    @Test
+    void testGetAllRestaurantsWithMenu_FiltersByNameAndCapsSize() {
+        when(restaurantRepository.findByNameContainingIgnoreCase(eq("sushi"), any(Pageable.class))).thenReturn(List.of());
+
+        List<RestaurantDTO> result = restaurantService.getAllRestaurantsWithMenu(" sushi ", 2, 10_000);
+
+        assertTrue(result.isEmpty());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(restaurantRepository).findByNameContainingIgnoreCase(eq("sushi"), pageable.capture());
+        assertEquals(2, pageable.getValue().getPageNumber());
+        assertEquals(RestaurantService.MAX_PAGE_SIZE, pageable.getValue().getPageSize());
+        verifyNoInteractions(menuItemRepository);
+    }
+
+    /** Test: One row more than the page size is fetched and the last returned row becomes the next cursor */
+    @Test
+    void testGetAllOrders_ReturnsNextCursor() {
+        when(customerOrderRepository.findPageBefore(eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(order(9L), order(7L), order(4L)));
+
+        CursorPage<CustomerOrderDTO> page = restaurantService.getAllOrders(null, 2);
+
+        assertEquals(List.of(9L, 7L), page.getItems().stream().map(CustomerOrderDTO::getId).toList());
+        assertEquals(CursorUtils.encode(7L), page.getNextCursor());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(customerOrderRepository).findPageBefore(eq(Long.MAX_VALUE), pageable.capture());
+        assertEquals(3, pageable.getValue().getPageSize());
+    }
+
+    /** Test: The cursor continues below the last seen ID and the last page has no next cursor */
+    @Test
+    void testGetAllOrders_LastPage() {
+        when(customerOrderRepository.findPageBefore(eq(7L), any(Pageable.class))).thenReturn(List.of(order(4L)));
+
+        CursorPage<CustomerOrderDTO> page = restaurantService.getAllOrders(CursorUtils.encode(7L), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    /** Test: Availability changes are authorized from the membership index, without loading the restaurant */
+    @Test
+    void testUpdateMenuItemAvailability_AuthorizedFromIndex() {
+        Restaurant pizza = restaurant(1L, "Pizza Place");
+        when(membershipIndex.findRestaurantIdForEmployee("marysmith", "pizza-place")).thenReturn(1L);
+        when(menuItemRepository.findById(10L)).thenReturn(Optional.of(menuItem(10L, pizza)));
+
+        Map<String, Object> result = restaurantService.updateMenuItemAvailability(
+                "marysmith", "pizza-place", 10L, Map.of("isAvailable", false));
+
+        assertEquals(false, result.get("newAvailability"));
+        verify(menuCacheService).invalidateMenu(1L);
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    /** Test: Employees cannot change menu items of another restaurant or of a restaurant they do not work for */
+    @Test
+    void testUpdateMenuItemAvailability_Unauthorized() {
+        when(membershipIndex.findRestaurantIdForEmployee("marysmith", "pizza-place")).thenReturn(1L);
+        when(menuItemRepository.findById(11L)).thenReturn(Optional.of(menuItem(11L, restaurant(2L, "Sushi World"))));
+        when(membershipIndex.findRestaurantIdForEmployee("pizzachef", "pizza-place")).thenReturn(null);
+
+        assertThrows(ValidationException.class, () -> restaurantService.updateMenuItemAvailability(
+                "marysmith", "pizza-place", 11L, Map.of("isAvailable", false)));
+        assertThrows(ValidationException.class, () -> restaurantService.updateMenuItemAvailability(
+                "pizzachef", "pizza-place", 10L, Map.of("isAvailable", false)));
+        verify(menuItemRepository, never()).save(any());
+        verify(menuItemRepository, never()).findById(10L);
+    }
+
+    /** Test: Order status changes compare the order's restaurant with the indexed restaurant ID */
+    @Test
+    void testUpdateOrderStatus_AuthorizedFromIndex() {
+        CustomerOrder order = new CustomerOrder();
+        order.setRestaurant(restaurant(2L, "Sushi World"));
+        order.setStatus(OrderStatus.CONFIRMED);
+        when(membershipIndex.findRestaurantIdForEmployee("marysmith", "pizza-place")).thenReturn(1L);
+        when(customerOrderRepository.findByOrderNumber("ORDER002")).thenReturn(Optional.of(order));
+
+        assertThrows(ValidationException.class, () -> restaurantService.updateOrderStatus(
+                "marysmith", "pizza-place", "ORDER002", Map.of("status", "IN_KITCHEN")));
+        assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    /** Test: A cursor that was not issued by the server is rejected before querying */
+    @Test
+    void testGetAllOrders_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> restaurantService.getAllOrders("bogus", 20));
+        assertThrows(IllegalArgumentException.class, () -> restaurantService.getAllOrders("aWQ6eA", 20)); // "id:x"
+        verifyNoInteractions(customerOrderRepository);
+    }
+}
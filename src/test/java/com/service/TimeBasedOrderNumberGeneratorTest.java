@@ -0,0 +1,121 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBasedOrderNumberGeneratorTest {
+
+    private static final long NOW = TimeBasedOrderNumberGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    /** Test: Order numbers are fixed width and sort in the same order as they were issued */
+    @Test
+    void testOrderNumbers_FixedWidthAndOrdered() {
+        TimeBasedOrderNumberGenerator generator = new TimeBasedOrderNumberGenerator(0);
+
+        String previous = generator.nextOrderNumber();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextOrderNumber();
+            assertTrue(next.matches("ORD-[0-9A-HJKMNP-TV-Z]{13}"), "Unexpected format: " + next);
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+
+    /** Test: The id carries the timestamp and node id in their own bit ranges */
+    @Test
+    void testNextId_EncodesTimestampAndNode() {
+        TimeBasedOrderNumberGenerator generator = new TimeBasedOrderNumberGenerator(() -> NOW, 513);
+
+        long id = generator.nextId();
+
+        assertEquals(NOW - TimeBasedOrderNumberGenerator.EPOCH_MILLIS, id >>> 22);
+        assertEquals(513, (id >>> 12) & TimeBasedOrderNumberGenerator.MAX_NODE_ID);
+        assertEquals(0, id & 0xFFF);
+    }
+
+    /** Test: Exhausting the counter within one millisecond or a clock stepping back never repeats an id */
+    @Test
+    void testNextId_MonotonicWhenClockStallsOrGoesBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeBasedOrderNumberGenerator generator = new TimeBasedOrderNumberGenerator(clock::get, 1);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 20_000; i++) {
+            if (i == 10_000) {
+                clock.addAndGet(-5_000);
+            }
+            long next = generator.nextId();
+            assertTrue(next > previous);
+            assertEquals(1, (next >>> 12) & TimeBasedOrderNumberGenerator.MAX_NODE_ID, "Node id must survive counter overflow");
+            previous = next;
+        }
+    }
+
+    /** Test: Two nodes sharing the same clock never produce the same order number */
+    @Test
+    void testNextId_DistinctAcrossNodes() {
+        TimeBasedOrderNumberGenerator first = new TimeBasedOrderNumberGenerator(() -> NOW, 1);
+        TimeBasedOrderNumberGenerator second = new TimeBasedOrderNumberGenerator(() -> NOW, 2);
+
+        long[] ids = new long[20_000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+
+        assertAllDistinct(ids);
+    }
+
+    /** Test: Node ids outside the 10-bit range are rejected */
+    @Test
+    void testConstructor_RejectsInvalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeBasedOrderNumberGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new TimeBasedOrderNumberGenerator(-1));
+    }
+
+    /** Test: Twelve million ids drawn concurrently are all unique and increasing per thread */
+    @Test
+    void testNextId_NoCollisionsUnderConcurrency() throws InterruptedException {
+        int threads = 4;
+        int perThread = 3_000_000;
+        TimeBasedOrderNumberGenerator generator = new TimeBasedOrderNumberGenerator(7);
+        long[] ids = new long[threads * perThread];
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids[offset + i] = generator.nextId();
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = t * perThread + 1; i < (t + 1) * perThread; i++) {
+                assertTrue(ids[i] > ids[i - 1], "Ids must increase within a thread");
+            }
+        }
+        assertAllDistinct(ids);
+    }
+
+    private static void assertAllDistinct(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.parallelSort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                fail("Duplicate id " + sorted[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBlacklistLogTest {
+
+    private static final long SEGMENT_SIZE = TokenBlacklistLog.HEADER_SIZE + 4 * TokenBlacklistLog.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private record Entry(long high, long low, long expiry) {
+    }
+
+    private static List<Entry> replay(TokenBlacklistLog log) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        log.replay((high, low, expiry) -> entries.add(new Entry(high, low, expiry)));
+        return entries;
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    /** Test: Records appended before a restart are replayed, across rolled-over segments */
+    @Test
+    void testReplayAfterRestart() throws IOException {
+        try (TokenBlacklistLog log = new TokenBlacklistLog(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 10; i++) {
+                log.append(i, -i, 1000 + i);
+            }
+        }
+        assertEquals(3, segments());
+
+        try (TokenBlacklistLog log = new TokenBlacklistLog(directory, SEGMENT_SIZE)) {
+            List<Entry> entries = replay(log);
+
+            assertEquals(10, entries.size());
+            assertTrue(entries.contains(new Entry(7, -7, 1007)));
+        }
+    }
+
+    /** Test: An instance tails the records another instance appends to the shared directory, and not its own */
+    @Test
+    void testPollTailsOtherInstances() throws IOException {
+        try (TokenBlacklistLog first = new TokenBlacklistLog(directory, SEGMENT_SIZE);
+             TokenBlacklistLog second = new TokenBlacklistLog(directory, SEGMENT_SIZE)) {
+            List<Entry> seen = new ArrayList<>();
+            assertEquals(List.of(), replay(second));
+
+            first.append(1, 1, 1001);
+            first.append(2, 2, 1002);
+            second.append(3, 3, 1003);
+            second.poll((high, low, expiry) -> seen.add(new Entry(high, low, expiry)));
+            assertEquals(List.of(new Entry(1, 1, 1001), new Entry(2, 2, 1002)), seen);
+
+            for (int i = 4; i <= 6; i++) {
+                first.append(i, i, 1000 + i); // Rolls over to a second segment
+            }
+            seen.clear();
+            second.poll((high, low, expiry) -> seen.add(new Entry(high, low, expiry)));
+            assertEquals(3, seen.size());
+            assertTrue(seen.contains(new Entry(6, 6, 1006)));
+
+            seen.clear();
+            second.poll((high, low, expiry) -> seen.add(new Entry(high, low, expiry)));
+            assertEquals(List.of(), seen);
+        }
+    }
+
+    /** Test: Compaction deletes released segments whose tokens have all expired, and keeps the others */
+    @Test
+    void testCompactDeletesExpiredSegments() throws IOException {
+        try (TokenBlacklistLog log = new TokenBlacklistLog(directory, SEGMENT_SIZE)) {
+            for (int i = 1; i <= 4; i++) {
+                log.append(i, i, 1000); // First segment expires at 1000
+            }
+            for (int i = 5; i <= 8; i++) {
+                log.append(i, i, 2000); // Second segment expires at 2000
+            }
+            log.append(9, 9, 1500); // Active segment, never compacted while written
+
+            log.compact(999);
+            assertEquals(3, segments());
+
+            log.compact(1000);
+            assertEquals(2, segments());
+
+            log.compact(5000);
+            assertEquals(1, segments());
+        }
+
+        try (TokenBlacklistLog log = new TokenBlacklistLog(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(new Entry(9, 9, 1500)), replay(log));
+
+            log.compact(5000); // Released by its writer now
+            assertEquals(0, segments());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.service;
+
+import com.security.JwtTokenUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBlacklistServiceTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(100);
+
+    private TokenBlacklistService tokenBlacklistService(int bloomExpectedInsertions) {
+        return new TokenBlacklistService(jwtTokenUtil, bloomExpectedInsertions, Duration.ofMinutes(10), clock, null, null);
+    }
+
+    /** Test: A logged-out token is blacklisted until its expiry, and other tokens are not */
+    @Test
+    void testBlacklistToken_UntilExpiry() {
+        TokenBlacklistService service = tokenBlacklistService(1000);
+
+        service.blacklistToken("token-a", clock.instant().plusSeconds(60));
+
+        assertTrue(service.isTokenBlacklisted("token-a"));
+        assertFalse(service.isTokenBlacklisted("token-b"));
+
+        clock.advance(Duration.ofSeconds(59));
+        service.expire();
+        assertTrue(service.isTokenBlacklisted("token-a"));
+
+        clock.advance(Duration.ofSeconds(2));
+        service.expire();
+        assertFalse(service.isTokenBlacklisted("token-a"));
+        assertEquals(0, service.size());
+    }
+
+    /** Test: Real tokens are kept until their exp claim, and invalid or expired tokens are not kept at all */
+    @Test
+    void testBlacklistToken_ReadsExpiryFromToken() {
+        clock.set(Instant.now());
+        TokenBlacklistService service = tokenBlacklistService(1000);
+        String token = jwtTokenUtil.generateToken("johndoe", "CUSTOMER");
+
+        service.blacklistToken(token);
+        service.blacklistToken("not-a-token");
+        service.blacklistToken("token-c", clock.instant().minusSeconds(1));
+
+        assertTrue(service.isTokenBlacklisted(token));
+        assertEquals(1, service.size());
+
+        clock.advance(Duration.ofMinutes(61));
+        service.expire();
+        assertFalse(service.isTokenBlacklisted(token));
+    }
+
+    /** Test: Over millions of logouts, memory is bounded by the tokens that have not expired yet */
+    @Test
+    @Tag("soak")
+    void testSoak_MemoryStaysFlat() {
+        int logouts = 3_000_000;
+        Duration tokenLifetime = Duration.ofSeconds(60);
+        long liveTokens = tokenLifetime.toMillis() + 1000; // One logout per millisecond, expired once per second
+        TokenBlacklistService service = tokenBlacklistService(100_000);
+
+        int maxSize = 0;
+        int maxGenerations = 0;
+        for (int i = 0; i < logouts; i++) {
+            service.blacklistToken("token-" + i, clock.instant().plus(tokenLifetime));
+            clock.advance(Duration.ofMillis(1));
+            if (i % 1000 == 999) {
+                service.expire();
+                maxSize = Math.max(maxSize, service.size());
+                maxGenerations = Math.max(maxGenerations, service.bloomGenerations());
+            }
+        }
+
+        assertTrue(maxSize <= liveTokens, "Kept " + maxSize + " tokens, expected at most " + liveTokens);
+        assertTrue(maxGenerations <= 3, "Kept " + maxGenerations + " Bloom filter generations");
+        assertTrue(service.isTokenBlacklisted("token-" + (logouts - 1)));
+        assertFalse(service.isTokenBlacklisted("token-0"));
+
+        clock.advance(tokenLifetime.plusSeconds(1));
+        service.expire();
+        assertEquals(0, service.size());
+        assertEquals(1, service.bloomGenerations());
+    }
+
+    /** Test: With a log directory, logouts survive a restart and reach the other instances sharing it */
+    @Test
+    void testLog_ReplayedAndShared(@TempDir Path directory) throws IOException {
+        TokenBlacklistService first = new TokenBlacklistService(jwtTokenUtil, 1000, Duration.ofMinutes(10), clock, null,
+                new TokenBlacklistLog(directory, 4096));
+        TokenBlacklistService second = new TokenBlacklistService(jwtTokenUtil, 1000, Duration.ofMinutes(10), clock, null,
+                new TokenBlacklistLog(directory, 4096));
+
+        first.blacklistToken("token-a", clock.instant().plusSeconds(60));
+        first.blacklistToken("token-b", clock.instant().plusSeconds(600));
+        assertFalse(second.isTokenBlacklisted("token-a"));
+        second.expire();
+        assertTrue(second.isTokenBlacklisted("token-a"));
+        assertTrue(second.isTokenBlacklisted("token-b"));
+        first.destroy();
+        second.destroy();
+
+        clock.advance(Duration.ofSeconds(61));
+        TokenBlacklistService restarted = new TokenBlacklistService(jwtTokenUtil, 1000, Duration.ofMinutes(10), clock, null,
+                new TokenBlacklistLog(directory, 4096));
+        assertFalse(restarted.isTokenBlacklisted("token-a"));
+        assertTrue(restarted.isTokenBlacklisted("token-b"));
+        assertEquals(1, restarted.size());
+        restarted.destroy();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis;
+
+        MutableClock(Instant start) {
+            this.millis = new AtomicLong(start.toEpochMilli());
+        }
+
+        void set(Instant instant) {
+            millis.set(instant.toEpochMilli());
+        }
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        @Override
+        public long millis() {
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
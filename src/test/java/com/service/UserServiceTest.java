@@ -0,0 +1,75 @@
+package com.service;
+
+import com.dto.AppUserSnapshot;
+import com.exception.ResourceNotFoundException;
+import com.model.AppUser;
+import com.model.UserRole;
+import com.repository.AppUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private AppUserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private UserService userService;
+
+    private final AppUserSnapshot johndoe =
+            new AppUserSnapshot(1L, "johndoe", "encodedPassword", UserRole.CUSTOMER, "John Doe", null, 1L);
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, passwordEncoder, new ConcurrentMapCacheManager(UserService.APP_USERS));
+    }
+
+    /** Test: A user snapshot is loaded once and served from the cache afterwards */
+    @Test
+    void testGetUserSnapshot_Cached() {
+        when(userRepository.findSnapshotByUsername("johndoe")).thenReturn(Optional.of(johndoe));
+
+        assertEquals(johndoe, userService.getUserSnapshot("johndoe"));
+        assertEquals(johndoe, userService.getUserSnapshot("johndoe"));
+        assertTrue(userService.userExists("johndoe"));
+
+        verify(userRepository, times(1)).findSnapshotByUsername("johndoe");
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    /** Test: Unknown usernames are not cached, so a user registered later is found */
+    @Test
+    void testGetUserSnapshot_UnknownNotCached() {
+        when(userRepository.findSnapshotByUsername("johndoe")).thenReturn(Optional.empty(), Optional.of(johndoe));
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserSnapshot("johndoe"));
+        assertEquals(johndoe, userService.getUserSnapshot("johndoe"));
+    }
+
+    /** Test: Saving a user drops its cached snapshot */
+    @Test
+    void testAddUser_InvalidatesSnapshot() {
+        AppUserSnapshot changed = new AppUserSnapshot(1L, "johndoe", "newPassword", UserRole.CUSTOMER, "John Doe", null, 1L);
+        when(userRepository.findSnapshotByUsername("johndoe")).thenReturn(Optional.of(johndoe), Optional.of(changed));
+        when(userRepository.save(any(AppUser.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.getUserSnapshot("johndoe");
+
+        userService.addUser(new AppUser("johndoe", "password", UserRole.CUSTOMER, "John Doe"));
+
+        assertEquals("newPassword", userService.getUserSnapshot("johndoe").password());
+    }
+}
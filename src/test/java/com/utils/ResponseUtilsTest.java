@@ -0,0 +1,18 @@
+package com.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseUtilsTest {
+
+    /** Test: Accept-Encoding parsing honours an explicit q=0 */
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(ResponseUtils.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ResponseUtils.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(ResponseUtils.acceptsGzip("gzip;q=0"));
+        assertFalse(ResponseUtils.acceptsGzip("deflate"));
+        assertFalse(ResponseUtils.acceptsGzip(null));
+    }
+}
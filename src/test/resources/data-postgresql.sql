@@ -1,8 +1,8 @@
 -- Insert data into address
-INSERT INTO address (street_name, house_number, postal_code, city)
+INSERT INTO address (id, street_name, house_number, postal_code, city)
 VALUES
-    ('Customer Lane', '123', '12345', 'City'),
-    ('Another St', '456', '67890', 'City')
+    (1, 'Customer Lane', '123', '12345', 'City'),
+    (2, 'Another St', '456', '67890', 'City')
     ON CONFLICT DO NOTHING;
 
 -- Create and populate the restaurant table with a slug column
@@ -15,40 +15,40 @@ VALUES
 -- Update other tables as needed
 
 -- Insert data into app_users
-INSERT INTO app_users (username, password, role, full_name, address_id, restaurant_id)
+INSERT INTO app_users (id, username, password, role, full_name, address_id, restaurant_id)
 VALUES
-    ('johndoe', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'CUSTOMER', 'John Doe', 1, NULL),
-    ('marysmith', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'RESTAURANT_EMPLOYEE', 'Mary Smith', NULL, 1),
-    ('pizzachef', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'RESTAURANT_EMPLOYEE', 'Pizza Chef', NULL, 2),
-    ('alexjohnson', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'DELIVERY_PERSON', 'Alex Johnson', NULL, NULL)
+    (1, 'johndoe', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'CUSTOMER', 'John Doe', 1, NULL),
+    (2, 'marysmith', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'RESTAURANT_EMPLOYEE', 'Mary Smith', NULL, 1),
+    (3, 'pizzachef', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'RESTAURANT_EMPLOYEE', 'Pizza Chef', NULL, 2),
+    (4, 'alexjohnson', '$2a$10$VV7hM4ueF.XpVP0VOJtJL.L1N2nb9jwPtxp0KNPP.9MPJahd49.2S', 'DELIVERY_PERSON', 'Alex Johnson', NULL, NULL)
     ON CONFLICT DO NOTHING;
 
 -- Insert data into menu_item
-INSERT INTO menu_item (name, description, price, ingredients, inventory, is_available, restaurant_id)
+INSERT INTO menu_item (id, name, description, price, ingredients, inventory, is_available, restaurant_id)
 VALUES
-    ('Margherita Pizza', 'Classic cheese and tomato', 9.99, 'Cheese, Tomato, Basil', 999, TRUE, 1),
-    ('Pepperoni Pizza', 'Cheese, tomato, and pepperoni', 11.99, 'Cheese, Tomato, Pepperoni', 999, TRUE, 1),
-    ('California Roll', 'Crab, avocado, and cucumber', 8.99, 'Crab, Avocado, Cucumber', 999, TRUE, 2),
-    ('Spicy Tuna Roll', 'Tuna with spicy sauce', 10.99, 'Tuna, Spicy Mayo', 999, TRUE, 2)
+    (1, 'Margherita Pizza', 'Classic cheese and tomato', 9.99, 'Cheese, Tomato, Basil', 999, TRUE, 1),
+    (2, 'Pepperoni Pizza', 'Cheese, tomato, and pepperoni', 11.99, 'Cheese, Tomato, Pepperoni', 999, TRUE, 1),
+    (3, 'California Roll', 'Crab, avocado, and cucumber', 8.99, 'Crab, Avocado, Cucumber', 999, TRUE, 2),
+    (4, 'Spicy Tuna Roll', 'Tuna with spicy sauce', 10.99, 'Tuna, Spicy Mayo', 999, TRUE, 2)
     ON CONFLICT DO NOTHING;
 
 -- Insert data into customer_order
-INSERT INTO customer_order (user_id, address_id, status, total_price, restaurant_id, order_number, delivery_person)
+INSERT INTO customer_order (id, user_id, address_id, status, total_price, restaurant_id, order_number, delivery_person)
 VALUES
-    (1, 1, 'READY_FOR_DELIVERY', 31.97, 1, 'ORDER001', NULL),
-    (1, 2, 'DELIVERED', 47.95, 2, 'ORDER002', 'alexjohnson'),
+    (1, 1, 1, 'READY_FOR_DELIVERY', 31.97, 1, 'ORDER001', NULL),
+    (2, 1, 2, 'DELIVERED', 47.95, 2, 'ORDER002', 'alexjohnson'),
     -- New test order for delivery person functionality
-    (1, 1, 'READY_FOR_DELIVERY', 25.98, 1, 'ORDER003', NULL)
+    (3, 1, 1, 'READY_FOR_DELIVERY', 25.98, 1, 'ORDER003', NULL)
     ON CONFLICT DO NOTHING;
 
 -- Insert data into order_items
-INSERT INTO order_items (customer_order_id, menu_item_id, quantity, order_number)
+INSERT INTO order_items (id, customer_order_id, menu_item_id, quantity, order_number)
 VALUES
-    (1, 1, 2, 'ORDER001'),
-    (1, 2, 1, 'ORDER001'),
-    (2, 3, 3, 'ORDER002'),
-    (2, 4, 2, 'ORDER002'),
+    (1, 1, 1, 2, 'ORDER001'),
+    (2, 1, 2, 1, 'ORDER001'),
+    (3, 2, 3, 3, 'ORDER002'),
+    (4, 2, 4, 2, 'ORDER002'),
     -- Items for the new test order
-    (3, 1, 1, 'ORDER003'),
-    (3, 2, 1, 'ORDER003')
+    (5, 3, 1, 1, 'ORDER003'),
+    (6, 3, 2, 1, 'ORDER003')
     ON CONFLICT DO NOTHING;